@@ -0,0 +1,138 @@
+package jpabook.jpashop.api;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import jpabook.jpashop.JpashopApplication;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 커넥션 풀 크기별 부하 테스트 (/api/v3/orders 가 몰리는 상황)
+ *
+ * 요청 스레드(@Threads) 64개가 동시에 주문 조회(fetch join)를 트랜잭션 안에서 실행한다.
+ * 풀 크기(poolSize)를 바꿔가며 처리량과 커넥션 대기 시간(hikaricp.connections.acquire)을 비교한다.
+ * -> 풀을 키워도 처리량이 늘지 않는 지점이 적정 크기, 그보다 작으면 대기 시간이 늘고 timeout 이 생긴다.
+ *
+ * 커넥션 대기 시간 평균/최대, timeout 건수는 반복(iteration)마다 재서 평균을 보조 결과(PoolStats)로 남긴다.
+ * 실행: ./gradlew jmh -PjmhArgs="ConnectionPoolBenchmark -p poolSize=4,8,16,32"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(64)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    @Param({"5", "10", "20", "40"})
+    int poolSize;
+    @Param({"3000"})
+    long connectionTimeout;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate readOnlyTx;
+    OrderApiController orderApi;
+    MeterRegistry meterRegistry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.profiles.active=prod",
+                "--spring.devtools.restart.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                "--spring.datasource.hikari.connection-timeout=" + connectionTimeout,
+                "--logging.level.org.hibernate.SQL=off",
+                "--logging.level.org.hibernate.orm.jdbc.bind=off",
+                "--logging.level.jpabook.jpashop=warn");
+
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+        readOnlyTx = new TransactionTemplate(tx.getTransactionManager());
+        readOnlyTx.setReadOnly(true);
+        orderApi = context.getBean(OrderApiController.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+    }
+
+    /**
+     * 반복(iteration) 동안의 커넥션 대기 시간 평균/최대, timeout 건수 -> 풀 전체 값이라 첫 번째 스레드만 남긴다. (IterationAverage)
+     * 누적 값(Timer, Counter)은 반복 시작 때 값을 빼서 반복 동안의 값만 본다. (최대는 Timer 의 최근 구간 값)
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PoolStats {
+
+        public double acquireMeanMillis;
+        public double acquireMaxMillis;
+        public double connectionTimeouts;
+        private IterationAverage average;
+        private long startCount;
+        private double startTotalMillis;
+        private double startTimeouts;
+
+        @Setup(Level.Trial)
+        public void init(BenchmarkParams benchmarkParams, ThreadParams threadParams) {
+            average = new IterationAverage(benchmarkParams, threadParams);
+        }
+
+        @Setup(Level.Iteration)
+        public void start(ConnectionPoolBenchmark benchmark) {
+            Timer acquire = benchmark.acquireTimer();
+            startCount = acquire.count();
+            startTotalMillis = acquire.totalTime(TimeUnit.MILLISECONDS);
+            startTimeouts = benchmark.timeoutCounter().count();
+        }
+
+        @TearDown(Level.Iteration)
+        public void summarize(ConnectionPoolBenchmark benchmark) {
+            Timer acquire = benchmark.acquireTimer();
+            long count = acquire.count() - startCount;
+            double totalMillis = acquire.totalTime(TimeUnit.MILLISECONDS) - startTotalMillis;
+            acquireMeanMillis = average.of(count == 0 ? 0 : totalMillis / count);
+            acquireMaxMillis = average.of(acquire.max(TimeUnit.MILLISECONDS));
+            connectionTimeouts = average.of(benchmark.timeoutCounter().count() - startTimeouts);
+        }
+    }
+
+    Timer acquireTimer() {
+        return meterRegistry.get("hikaricp.connections.acquire").timer();
+    }
+
+    Counter timeoutCounter() {
+        return meterRegistry.get("hikaricp.connections.timeout").counter();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object ordersV3(PoolStats poolStats) {
+        return readOnlyTx.execute(status -> orderApi.ordersV3());
+    }
+}
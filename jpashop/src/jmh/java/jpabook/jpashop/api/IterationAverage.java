@@ -0,0 +1,26 @@
+package jpabook.jpashop.api;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * @AuxCounters(EVENTS) 로 반복(iteration)마다 재는 값(호출당 SQL 수, 최대 스레드 수 등)을 남길 때 사용
+ *
+ * JMH는 EVENTS 값을 스레드, 측정 반복, fork 전체에 대해 더한다. (평균이 아니다)
+ * -> 첫 번째 스레드만 (반복 값 / 측정 반복 수 / fork 수)를 남긴다. -> 합계 = 측정 반복 평균
+ * 반복마다 출력되는 값은 나눈 값이다. -> 최종 결과(Score)를 본다.
+ */
+class IterationAverage {
+
+    private final boolean reporter;
+    private final int iterations;
+
+    IterationAverage(BenchmarkParams benchmarkParams, ThreadParams threadParams) {
+        this.reporter = threadParams.getThreadIndex() == 0;
+        this.iterations = benchmarkParams.getMeasurement().getCount() * Math.max(benchmarkParams.getForks(), 1);
+    }
+
+    double of(double value) {
+        return reporter ? value / iterations : 0;
+    }
+}
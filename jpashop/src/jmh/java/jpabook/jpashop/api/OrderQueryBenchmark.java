@@ -0,0 +1,231 @@
+package jpabook.jpashop.api;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.monitoring.QueryCounter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 주문 조회 API 버전별 비교 (쿼리 + DTO 변환)
+ *
+ * 컨트롤러 메서드를 그대로 호출한다. -> OSIV 대신 읽기 전용 트랜잭션 안에서 실행
+ * queriesPerCall: 호출 한 번당 SQL 수 (QueryCounter), gc 프로파일러로 호출당 할당량(gc.alloc.rate.norm)도 같이 본다.
+ *
+ * 모든 버전이 같은 row 수(주문 전체 = orders 건)를 읽는다. -> 페이징 버전은 limit = orders 로 한 페이지에 전부 조회
+ * v2 는 최대 1000건(findAll), 커서는 limit 최대 1000 -> orders 는 1000 이하로만 준다.
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="OrderQueryBenchmark -p orders=500"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderQueryBenchmark {
+
+    private static final int MAX_ORDERS = 1000; // findAll / 커서 페이지 최대 크기
+
+    @Param({"1000"})
+    int members;
+    @Param({"500"})
+    int items;
+    @Param({"1000"})
+    int orders; // MAX_ORDERS 이하
+    @Param({"3"})
+    int itemsPerOrder;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate readOnlyTx;
+    QueryCounter queryCounter;
+    OrderApiController orderApi;
+    OrderSimpleApiController simpleOrderApi;
+
+    /**
+     * 호출당 SQL 수 (측정 반복 평균, IterationAverage)
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Queries {
+
+        public double queriesPerCall;
+        private long queries;
+        private long calls;
+        private IterationAverage average;
+
+        @Setup(Level.Trial)
+        public void init(BenchmarkParams benchmarkParams, ThreadParams threadParams) {
+            average = new IterationAverage(benchmarkParams, threadParams);
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            queries = 0;
+            calls = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void summarize() {
+            queriesPerCall = average.of(calls == 0 ? 0 : (double) queries / calls);
+        }
+
+        void add(long count) {
+            queries += count;
+            calls++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (orders > MAX_ORDERS) {
+            throw new IllegalArgumentException("orders 는 " + MAX_ORDERS + " 이하만 가능합니다. orders=" + orders);
+        }
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.devtools.restart.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--logging.level.org.hibernate.SQL=off",
+                "--logging.level.org.hibernate.orm.jdbc.bind=off",
+                "--logging.level.jpabook.jpashop=warn");
+
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+        readOnlyTx = new TransactionTemplate(tx.getTransactionManager());
+        readOnlyTx.setReadOnly(true);
+        queryCounter = context.getBean(QueryCounter.class);
+        orderApi = context.getBean(OrderApiController.class);
+        simpleOrderApi = context.getBean(OrderSimpleApiController.class);
+
+        seed(tx, context.getBean(EntityManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * InitDb(주문 2건) 보다 큰 데이터 -> 500건마다 flush/clear
+     */
+    private void seed(TransactionTemplate tx, EntityManager em) {
+        List<Long> memberIds = new ArrayList<>();
+        List<Long> itemIds = new ArrayList<>();
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < members; i++) {
+                Member member = new Member();
+                member.setName("member" + i);
+                member.setAddress(new Address("city" + i % 10, "street" + i, "zip" + i));
+                em.persist(member);
+                memberIds.add(member.getId());
+            }
+            for (int i = 0; i < items; i++) {
+                Book book = new Book();
+                book.setName("book" + i);
+                book.setPrice(1000 + i);
+                book.setStockQuantity(Integer.MAX_VALUE);
+                em.persist(book);
+                itemIds.add(book.getId());
+            }
+        });
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < orders; i++) {
+                Member member = em.getReference(Member.class, memberIds.get(i % members));
+                Delivery delivery = new Delivery();
+                delivery.setAddress(new Address("city", "street", "zip"));
+                OrderItem[] orderItems = new OrderItem[itemsPerOrder];
+                for (int j = 0; j < itemsPerOrder; j++) {
+                    Book book = em.find(Book.class, itemIds.get((i + j) % items));
+                    orderItems[j] = OrderItem.createReservedOrderItem(book, book.getPrice(), 1);
+                }
+                em.persist(Order.createOrder(member, delivery, orderItems));
+                if (i % 500 == 499) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+    }
+
+    private Object measure(Queries queries, Supplier<Object> call) {
+        queryCounter.start();
+        try {
+            return readOnlyTx.execute(status -> call.get());
+        } finally {
+            queries.add(queryCounter.count());
+            queryCounter.clear();
+        }
+    }
+
+    // == simple-orders (XToOne) == //
+
+    @Benchmark
+    public Object simpleOrdersV2_lazy(Queries queries) {
+        return measure(queries, simpleOrderApi::ordersV2);
+    }
+
+    @Benchmark
+    public Object simpleOrdersV3_fetchJoin(Queries queries) {
+        return measure(queries, simpleOrderApi::ordersV3);
+    }
+
+    @Benchmark
+    public Object simpleOrdersV4_dto(Queries queries) {
+        return measure(queries, simpleOrderApi::odersV4);
+    }
+
+    // == orders (컬렉션) == //
+
+    @Benchmark
+    public Object ordersV2_lazy(Queries queries) {
+        return measure(queries, orderApi::ordersV2);
+    }
+
+    @Benchmark
+    public Object ordersV3_fetchJoin(Queries queries) {
+        return measure(queries, orderApi::ordersV3);
+    }
+
+    @Benchmark
+    public Object ordersV3_1_batchFetch(Queries queries) {
+        return measure(queries, () -> orderApi.ordersV3_page(0, orders));
+    }
+
+    @Benchmark
+    public Object ordersV3_2_cursor(Queries queries) {
+        return measure(queries, () -> orderApi.ordersV3_cursor(null, orders));
+    }
+
+    @Benchmark
+    public Object ordersV4_dtoInQuery(Queries queries) {
+        return measure(queries, () -> orderApi.ordersV4(0, orders));
+    }
+}
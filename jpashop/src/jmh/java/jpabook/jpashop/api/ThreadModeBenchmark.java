@@ -0,0 +1,120 @@
+package jpabook.jpashop.api;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import jpabook.jpashop.JpashopApplication;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 부하 테스트: 플랫폼 스레드 vs 가상 스레드 (spring.threads.virtual.enabled)
+ *
+ * 내장 톰캣을 띄우고 클라이언트 스레드(@Threads) 128개가 동시에 요청한다.
+ * 톰캣 스레드 풀(threads.max=50)보다 동시 요청이 많다. -> 플랫폼 스레드는 대기, 가상 스레드는 요청마다 스레드를 만든다.
+ * peakPlatformThreads: 반복마다 잰 JVM 플랫폼 스레드 최대 수의 평균 (클라이언트 스레드 포함, 가상 스레드는 세지 않는다)
+ *
+ * 메모리 H2는 JDBC 대기가 거의 없어서 처리량 차이는 작게 나온다. 실제 DB 지연을 보려면 datasource를 바꿔서 실행
+ * 실행: ./gradlew jmh -PjmhArgs="ThreadModeBenchmark -p path=/api/v2/simple-orders"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(128)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+    @Param({"/api/v4/simple-orders"})
+    String path;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    HttpRequest request;
+
+    /**
+     * 플랫폼 스레드 최대 수 -> JVM 전체 값이라 첫 번째 스레드만 남긴다. (IterationAverage)
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PeakThreads {
+
+        public double peakPlatformThreads;
+        private IterationAverage average;
+
+        @Setup(Level.Trial)
+        public void init(BenchmarkParams benchmarkParams, ThreadParams threadParams) {
+            average = new IterationAverage(benchmarkParams, threadParams);
+        }
+
+        @TearDown(Level.Iteration)
+        public void summarize() {
+            peakPlatformThreads = average.of(ManagementFactory.getThreadMXBean().getPeakThreadCount());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakThreads() {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+            .run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=50",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.devtools.restart.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:thread-mode;DB_CLOSE_DELAY=-1",
+                "--jpashop.query-budget.default-max=1000000",
+                "--logging.level.org.hibernate.SQL=off",
+                "--logging.level.org.hibernate.orm.jdbc.bind=off",
+                "--logging.level.jpabook.jpashop=warn");
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int request(PeakThreads peakThreads) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("status=" + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,171 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 관리 엔티티 vs 읽기 전용 엔티티 vs StatelessSession 조회 비교
+ *
+ * 쓰기 트랜잭션(OSIV, 쓰기 서비스 안의 목록 조회)에서 주문 전체를 읽는다.
+ * -> 관리 엔티티는 스냅샷을 만들고 커밋할 때 전부 변경 감지(dirty checking) 한다.
+ * gc 프로파일러의 호출당 할당량(gc.alloc.rate.norm)으로 스냅샷/영속성 컨텍스트 비용을 본다.
+ *
+ * 참고 (orders=5000, H2 메모리 DB, 1 CPU)
+ * -> list_readOnly: 스냅샷, 커밋 시 변경 감지가 없어서 list_managed 보다 할당량 약 5% 감소, 처리량 약 30% 증가
+ * -> scan_stateless: 영속성 컨텍스트가 없어서 clear 방식 보다 처리량 약 50% 증가
+ *    할당량은 더 많다. (1차 캐시가 없어서 회원을 row 마다 새로 만든다) 대신 힙에 남는 엔티티가 없다.
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="ReadOnlyQueryBenchmark -p orders=20000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyQueryBenchmark {
+
+    private static final String JPQL = "select o from Order o"
+        + " join fetch o.member m"
+        + " join fetch o.delivery d";
+
+    @Param({"5000"})
+    int orders;
+    @Param({"500"})
+    int chunkSize;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate tx;
+    EntityManager em;
+    OrderRepository orderRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.devtools.restart.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--logging.level.org.hibernate.SQL=off",
+                "--logging.level.org.hibernate.orm.jdbc.bind=off",
+                "--logging.level.jpabook.jpashop=warn");
+
+        tx = context.getBean(TransactionTemplate.class);
+        em = context.getBean(EntityManager.class);
+        orderRepository = context.getBean(OrderRepository.class);
+
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 회원 100명, 상품 10개, 주문 orders 건 -> 500건마다 flush/clear
+     */
+    private void seed() {
+        List<Long> memberIds = new ArrayList<>();
+        List<Long> itemIds = new ArrayList<>();
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < 100; i++) {
+                Member member = new Member();
+                member.setName("member" + i);
+                member.setAddress(new Address("city" + i % 10, "street" + i, "zip" + i));
+                em.persist(member);
+                memberIds.add(member.getId());
+            }
+            for (int i = 0; i < 10; i++) {
+                Book book = new Book();
+                book.setName("book" + i);
+                book.setPrice(1000 + i);
+                book.setStockQuantity(Integer.MAX_VALUE);
+                em.persist(book);
+                itemIds.add(book.getId());
+            }
+        });
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < orders; i++) {
+                Member member = em.getReference(Member.class, memberIds.get(i % memberIds.size()));
+                Book book = em.find(Book.class, itemIds.get(i % itemIds.size()));
+                Delivery delivery = new Delivery();
+                delivery.setAddress(new Address("city", "street", "zip"));
+                em.persist(Order.createOrder(member, delivery,
+                    OrderItem.createReservedOrderItem(book, book.getPrice(), 1)));
+                if (i % 500 == 499) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+    }
+
+    // == 목록 (List) == //
+
+    @Benchmark
+    public Object list_managed() {
+        return tx.execute(status -> em.createQuery(JPQL, Order.class).getResultList().size());
+    }
+
+    @Benchmark
+    public Object list_readOnly() {
+        return tx.execute(status -> orderRepository.findAllWithMemberDeliveryReadOnly(0, orders).size());
+    }
+
+    // == 전체 스캔 == //
+
+    @Benchmark
+    public void scan_managedWithClear(Blackhole bh) {
+        tx.executeWithoutResult(status -> {
+            try (Stream<Order> stream = em.createQuery(JPQL + " order by o.id", Order.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, chunkSize)
+                .getResultStream()) {
+                int count = 0;
+                Iterator<Order> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    bh.consume(iterator.next().getMember().getName());
+                    if (++count % chunkSize == 0) {
+                        em.clear(); // 영속성 컨텍스트에 쌓이지 않도록 chunkSize 마다 비운다.
+                    }
+                }
+            }
+        });
+    }
+
+    @Benchmark
+    public void scan_stateless(Blackhole bh) {
+        tx.executeWithoutResult(status ->
+            orderRepository.scanWithMemberDelivery(chunkSize, order -> bh.consume(order.getMember().getName())));
+    }
+}
@@ -0,0 +1,128 @@
+package jpabook.jpashop.repository;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import jpabook.jpashop.JpashopApplication;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 로그 설정별 회원 조회 처리량
+ *
+ * dev: application.yml 그대로 (SQL debug, 바인딩 trace) + 레포지토리 호출 로그 전부 -> 기존에 호출마다 INFO 로그를 남기던 것과 같은 양
+ * prod: prod 프로파일 (SQL, 바인딩 로그 끔, 레포지토리 호출 로그 1% 샘플링, 비동기 출력)
+ * off: 로그 없음 (기준)
+ * 콘솔 출력은 임시 파일로 보낸다. -> 출력(I/O) 비용도 포함
+ *
+ * 참고 (members=1000, H2 메모리 DB, 1 CPU) -> 처리량 (호출당 할당량)
+ * -> findOne: dev 약 26,000 ops/s (27KB), prod 약 47,000 ops/s (12KB), off 약 56,000 ops/s (11KB)
+ * -> findByName: dev 약 24,000 ops/s (29KB), prod 약 36,000 ops/s (14KB), off 약 44,000 ops/s (12KB)
+ * -> dev 는 off 의 절반 수준, 할당량은 2.5배 (SQL, 바인딩 파라미터 포맷팅)
+ * -> prod 와 off 의 차이는 대부분 로그가 아닌 hikari leak-detection-threshold (커넥션을 빌릴 때마다 타이머 등록)
+ *    leak-detection-threshold=0 이면 findOne 약 54,000 ops/s (11KB) -> off 와 오차 범위
+ * 1 CPU 에서는 JIT 컴파일이 늦게 끝난다. -> warmup 을 길게 잡는다.
+ *
+ * 실행: ./gradlew jmh -PjmhArgs="RepositoryLoggingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 15, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryLoggingBenchmark {
+
+    @Param({"dev", "prod", "off"})
+    String logging;
+    @Param({"1000"})
+    int members;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate readOnlyTx;
+    MemberRepository memberRepository;
+    List<Long> memberIds = new ArrayList<>();
+
+    PrintStream stdout;
+    Path logFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stdout = System.out;
+        logFile = Files.createTempFile("repository-logging", ".log");
+        System.setOut(new PrintStream(new FileOutputStream(logFile.toFile()), false));
+
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.devtools.restart.enabled=false",
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1"));
+        switch (logging) {
+            case "dev" -> args.add("--logging.level.jpabook.jpashop.repository=debug");
+            case "prod" -> args.add("--spring.profiles.active=prod");
+            case "off" -> args.addAll(List.of(
+                "--logging.level.org.hibernate.SQL=off",
+                "--logging.level.org.hibernate.orm.jdbc.bind=off"));
+            default -> throw new IllegalArgumentException("logging = " + logging);
+        }
+        context = new SpringApplicationBuilder(JpashopApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(args.toArray(String[]::new));
+
+        readOnlyTx = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        readOnlyTx.setReadOnly(true);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < members; i++) {
+                Member member = new Member();
+                member.setName("member" + i);
+                member.setAddress(new Address("city" + i % 10, "street" + i, "zip" + i));
+                memberRepository.save(member);
+                memberIds.add(member.getId());
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        System.out.close();
+        System.setOut(stdout);
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public Object findOne() {
+        Long id = memberIds.get(ThreadLocalRandom.current().nextInt(memberIds.size()));
+        return readOnlyTx.execute(status -> memberRepository.findOne(id));
+    }
+
+    @Benchmark
+    public Object findByName() {
+        String name = "member" + ThreadLocalRandom.current().nextInt(members);
+        return readOnlyTx.execute(status -> memberRepository.findByName(name));
+    }
+}
@@ -1,7 +1,7 @@
 package jpabook.jpashop;
 
-import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
+import java.util.concurrent.CompletableFuture;
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Delivery;
 import jpabook.jpashop.domain.Member;
@@ -9,17 +9,33 @@ import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
 import jpabook.jpashop.domain.item.Book;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 @Component
+@Profile("!seed & !prod") // 대량 데이터는 BulkDataLoader (seed 프로파일), 운영(prod)에는 샘플 데이터를 넣지 않는다.
 @RequiredArgsConstructor
 public class InitDb {
     private final InitService initService;
-    @PostConstruct
+    // 스프링 부트 기본 executor -> spring.threads.virtual.enabled=true 이면 가상 스레드
+    private final AsyncTaskExecutor applicationTaskExecutor;
+
+    /**
+     * 초기 데이터는 서로 독립적 -> 트랜잭션별로 동시에 넣고 모두 끝날 때까지 기다린다.
+     * @PostConstruct 에서 다른 스레드로 빈을 호출하면 컨텍스트 초기화 락과 데드락 -> 기동이 끝난 뒤 실행
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE) // 적재한 데이터를 읽는 리스너(MemberNameFilter)보다 먼저
     public void init() {
-        initService.dbInit1();
-        initService.dbInit2();
+        CompletableFuture.allOf(
+            CompletableFuture.runAsync(initService::dbInit1, applicationTaskExecutor),
+            CompletableFuture.runAsync(initService::dbInit2, applicationTaskExecutor)
+        ).join();
     }
 
     @Component
@@ -2,21 +2,32 @@ package jpabook.jpashop.api;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import java.util.List;
 import java.util.stream.Collectors;
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.exception.DuplicatedMemberException;
+import jpabook.jpashop.exception.MemberNotFoundException;
+import jpabook.jpashop.repository.MemberQueryDto;
+import jpabook.jpashop.service.MemberPage;
 import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.MemberUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -36,10 +47,33 @@ public class MemberApiController {
     @PutMapping("/api/v2/members/{id}")
     public UpdateMemberResponse updateMemberV2(@PathVariable("id") Long id,
         @RequestBody @Valid UpdateMemberRequest request) {
-        memberService.update(id, request.getName());
-        //
-        Member findMember = memberService.findOne(id);
-        return new UpdateMemberResponse(findMember.getId(), findMember.getName());
+        // 수정한 트랜잭션에서 바로 DTO로 받는다. -> 다시 조회하지 않는다.
+        MemberQueryDto updated = memberService.update(id, request.getName());
+        return new UpdateMemberResponse(updated.getMemberId(), updated.getName());
+    }
+
+    /**
+     * 일괄 수정 (CRM 동기화) -> 한 트랜잭션에서 update를 JDBC batch로 모아서 보낸다.
+     * 보내지 않은(null) 값은 바꾸지 않는다. 주소도 보낸 값(city, street, zipcode)만 바꾼다.
+     * 없는 회원이 있으면 404, 이름이 중복이면 409 -> 전체 실패
+     */
+    @PatchMapping("/api/v2/members")
+    public Result updateMembersV2(@RequestBody @Valid BulkUpdateMemberRequest request) {
+        List<MemberUpdate> updates = request.getMembers().stream()
+            .map(r -> new MemberUpdate(r.getId(), r.getName(), r.toAddress()))
+            .collect(Collectors.toList());
+        List<MemberDto> collect = memberService.updateAll(updates).stream()
+            .map(m -> new MemberDto(m.getMemberId(), m.getName(), m.getAddress()))
+            .collect(Collectors.toList());
+        return new Result(collect.size(), collect);
+    }
+
+    /**
+     * 회원명 사용 여부 (가입 화면 중복 확인)
+     */
+    @GetMapping("/api/v2/members/exists")
+    public NameExistsResponse memberNameExists(@RequestParam("name") String name) {
+        return new NameExistsResponse(name, memberService.existsByName(name));
     }
 
     @GetMapping("/api/v1/members")
@@ -47,13 +81,22 @@ public class MemberApiController {
         return memberService.findMembers();
     }
 
+    /**
+     * 회원 목록 -> 커서(keyset) 페이징 + DTO 직접 조회 (회원 id 순)
+     *
+     * 이전 응답의 nextCursor를 cursor로 넘기면 다음 페이지, 마지막 페이지면 nextCursor = null
+     * total=true 이면 전체 회원 수 추정치(totalEstimate)를 같이 준다. (count(*) 하지 않는다)
+     */
     @GetMapping("/api/v2/members")
-    public ResponseEntity<Result> memberV2() {
-        List<Member> findMembers = memberService.findMembers();
-        List<MemberDto> collect = findMembers.stream()
-            .map(m -> new MemberDto(m.getName()))
+    public ResponseEntity<MemberPageResult> memberV2(@RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam(value = "limit", defaultValue = "100") int limit,
+        @RequestParam(value = "total", defaultValue = "false") boolean total) {
+        MemberPage page = memberService.findMemberPage(cursor, limit, total);
+        List<MemberDto> collect = page.getMembers().stream()
+            .map(m -> new MemberDto(m.getMemberId(), m.getName(), m.getAddress()))
             .collect(Collectors.toList());
-        Result result = new Result(collect.size(), collect);
+        MemberPageResult result = new MemberPageResult(collect.size(), collect, page.getNextCursor(),
+            page.getTotalEstimate());
         return ResponseEntity.ok(result);
     }
 
@@ -65,10 +108,30 @@ public class MemberApiController {
         private T data;
     }
 
+    @Data
+    @AllArgsConstructor
+    static class MemberPageResult<T> {
+
+        private int count;
+        private T data;
+        private Long nextCursor; // 다음 페이지 조회 시 cursor 로 전달, 마지막 페이지면 null
+        private Long totalEstimate; // total=true 인 경우만
+    }
+
     @Data
     @AllArgsConstructor
     static class MemberDto {
+        private Long id;
+        private String name;
+        private Address address;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class NameExistsResponse {
+
         private String name;
+        private boolean exists;
     }
 
     @Data
@@ -77,6 +140,35 @@ public class MemberApiController {
         private String name;
     }
 
+    @Data
+    static class BulkUpdateMemberRequest {
+
+        @NotEmpty
+        @Size(max = 1000)
+        @Valid
+        private List<PatchMemberRequest> members;
+    }
+
+    @Data
+    static class PatchMemberRequest {
+
+        @NotNull
+        private Long id;
+        private String name;
+
+        // Address
+        private String city;
+        private String street;
+        private String zipcode;
+
+        Address toAddress() {
+            if (city == null && street == null && zipcode == null) {
+                return null;
+            }
+            return new Address(city, street, zipcode);
+        }
+    }
+
     @Data
     @AllArgsConstructor
     static class UpdateMemberResponse {
@@ -98,6 +190,45 @@ public class MemberApiController {
 
     }
 
+    /**
+     * 일괄 가입 -> 한 트랜잭션에서 insert를 JDBC batch로 모아서 보낸다.
+     * 이름이 하나라도 중복(이미 있는 회원, 요청 안에서 중복)이면 전체 실패 -> 409
+     */
+    @PostMapping("/api/v2/members/bulk")
+    public Result saveMembersV2(@RequestBody @Valid BulkCreateMemberRequest request) {
+        List<Member> members = request.getMembers().stream()
+            .map(r -> {
+                Member member = new Member();
+                member.setName(r.getName());
+                member.setAddress(new Address(r.getCity(), r.getStreet(), r.getZipcode()));
+                return member;
+            })
+            .collect(Collectors.toList());
+        List<Long> ids = memberService.joinAll(members);
+        return new Result(ids.size(), ids);
+    }
+
+    // 회원명 중복 (MemberService) -> 다른 IllegalStateException 은 잡지 않는다.
+    @ExceptionHandler(DuplicatedMemberException.class)
+    public ResponseEntity<String> duplicatedMember(DuplicatedMemberException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    // 없는 회원 (MemberService) -> 다른 IllegalArgumentException 은 잡지 않는다.
+    @ExceptionHandler(MemberNotFoundException.class)
+    public ResponseEntity<String> memberNotFound(MemberNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    @Data
+    static class BulkCreateMemberRequest {
+
+        @NotEmpty
+        @Size(max = 1000)
+        @Valid
+        private List<CreateMemberRequest> members;
+    }
+
     @Data
     static class CreateMemberRequest {
 
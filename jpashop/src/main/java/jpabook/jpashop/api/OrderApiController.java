@@ -2,6 +2,11 @@ package jpabook.jpashop.api;
 
 import static java.util.stream.Collectors.*;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,12 +16,32 @@ import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
 import jpabook.jpashop.domain.OrderSearch;
 import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.exception.InvalidCursorException;
+import jpabook.jpashop.exception.ItemNotFoundException;
+import jpabook.jpashop.exception.MemberNotFoundException;
+import jpabook.jpashop.exception.OrderQueueClosedException;
+import jpabook.jpashop.exception.OrderQueueFullException;
+import jpabook.jpashop.repository.OrderCursor;
+import jpabook.jpashop.repository.OrderQueryDto;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.service.AsyncOrderService;
+import jpabook.jpashop.service.OrderCommand;
+import jpabook.jpashop.service.OrderCommand.OrderLine;
+import jpabook.jpashop.service.OrderQueryService;
+import jpabook.jpashop.service.OrderService;
+import jpabook.jpashop.service.OrderTicket;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -25,7 +50,12 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class OrderApiController {
 
+    private static final int MAX_PAGE_SIZE = 1000; // 커서 페이징 한 페이지 최대 크기
+
     private final OrderRepository orderRepository;
+    private final OrderQueryService orderQueryService;
+    private final OrderService orderService;
+    private final AsyncOrderService asyncOrderService;
 
     /**
      * Entity 직접 노출 -> 하이버네이트6모듈 등록, Lazy=null 처리, 지연 로딩인 것은 무시한다. -> 양방향 연관관계 문제 -> @JsonIgnore
@@ -96,12 +126,157 @@ public class OrderApiController {
     @GetMapping("/api/v3.1/orders")
     public Result ordersV3_page(@RequestParam(value = "offset", defaultValue = "0") int offset,
         @RequestParam(value = "limit", defaultValue = "100") int limit) {
-        List<Order> orders = orderRepository.findAllWithMemberDelivery(offset, limit);
+        List<OrderDto> collect = orderQueryService.findOrders(offset, limit, OrderDto::new);
+        return new Result(collect.size(), collect);
+    }
 
-        List<OrderDto> collect = orders.stream()
-            .map(o -> new OrderDto(o))
+    /**
+     * 커서(keyset) 페이징
+     *
+     * V3.1과 같이 ToOne은 fetch join, 컬렉션은 batch size로 조회한다.
+     * offset 대신 이전 응답의 nextCursor를 넘기면 그 다음 주문부터 조회한다. (최신 주문 순)
+     * limit + 1개를 조회해서 다음 페이지가 있는지 판단한다. -> 마지막 페이지면 nextCursor = null
+     * limit 은 1 ~ MAX_PAGE_SIZE 로 맞춘다. 잘못된 cursor 는 400
+     */
+    @GetMapping("/api/v3.2/orders")
+    public CursorResult ordersV3_cursor(@RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", defaultValue = "100") int requestLimit) {
+        int limit = Math.min(Math.max(requestLimit, 1), MAX_PAGE_SIZE);
+        List<OrderDto> collect = orderQueryService.findOrders(OrderCursor.decode(cursor), limit + 1, OrderDto::new);
+
+        boolean hasNext = collect.size() > limit;
+        if (hasNext) {
+            collect = collect.subList(0, limit);
+        }
+        OrderDto last = hasNext ? collect.get(collect.size() - 1) : null;
+        String nextCursor = hasNext ? new OrderCursor(last.getOrderDate(), last.getOrderId()).encode() : null;
+        return new CursorResult(collect.size(), collect, nextCursor);
+    }
+
+    /**
+     * DTO 직접 조회 + 컬렉션 IN 쿼리 최적화
+     *
+     * 주문(ToOne 포함) 1번 + 주문상품(item 포함) 1번 -> 페이지 크기와 상관 없이 쿼리 2번
+     * V3.1은 엔티티를 조회하고 default_batch_fetch_size 만큼 나눠서 IN 쿼리가 여러 번 나간다.
+     * V4는 엔티티가 아니기 때문에 영속성 컨텍스트 관리 대상이 아니다.
+     * limit 은 1 ~ MAX_PAGE_SIZE 로 맞춘다. (주문상품 IN 절도 이 크기를 넘지 않는다)
+     */
+    @GetMapping("/api/v4/orders")
+    public Result ordersV4(@RequestParam(value = "offset", defaultValue = "0") int offset,
+        @RequestParam(value = "limit", defaultValue = "100") int requestLimit) {
+        int limit = Math.min(Math.max(requestLimit, 1), MAX_PAGE_SIZE);
+        List<OrderQueryDto> orders = orderQueryService.findOrderQueryDtos(offset, limit);
+        return new Result(orders.size(), orders);
+    }
+
+    /**
+     * 일괄 주문
+     *
+     * 주문마다 트랜잭션을 나누지 않고 한 트랜잭션에서 처리한다. -> insert는 JDBC batch로 모아서 나간다.
+     * 하나라도 실패(재고 부족 등)하면 전체 롤백
+     * 한 번에 최대 1000건 -> 트랜잭션 하나가 너무 많은 상품 row 를 오래 잠그지 않도록
+     * 없는 회원, 상품이 있으면 404
+     */
+    @PostMapping("/api/v1/orders/batch")
+    public Result ordersBatch(@RequestBody @Valid BatchOrderRequest request) {
+        List<OrderCommand> commands = request.getOrders().stream()
+            .map(o -> new OrderCommand(o.getMemberId(), o.getOrderItems().stream()
+                .map(oi -> new OrderLine(oi.getItemId(), oi.getCount()))
+                .collect(toList())))
             .collect(toList());
-        return new Result(collect.size(), collect);
+        List<Long> orderIds = orderService.orders(commands);
+        return new Result(orderIds.size(), orderIds);
+    }
+
+    /**
+     * 비동기 주문 -> 큐에 넣고 바로 202 + 접수증(ticket) 반환
+     * 처리 결과는 GET /api/v1/orders/async/{ticketId} 로 조회, 큐가 가득 차면 429, 종료 중이면 503
+     * 없는 회원, 상품이면 접수하지 않는다. -> 404
+     */
+    @PostMapping("/api/v1/orders/async")
+    public ResponseEntity<TicketResponse> orderAsync(@RequestBody @Valid CreateOrderRequest request) {
+        OrderCommand command = new OrderCommand(request.getMemberId(), request.getOrderItems().stream()
+            .map(oi -> new OrderLine(oi.getItemId(), oi.getCount()))
+            .collect(toList()));
+        OrderTicket ticket = asyncOrderService.submit(command);
+        return ResponseEntity.accepted()
+            .header(HttpHeaders.LOCATION, "/api/v1/orders/async/" + ticket.getId())
+            .body(new TicketResponse(ticket));
+    }
+
+    @GetMapping("/api/v1/orders/async/{ticketId}")
+    public ResponseEntity<TicketResponse> orderTicket(@PathVariable("ticketId") String ticketId) {
+        OrderTicket ticket = asyncOrderService.findTicket(ticketId);
+        if (ticket == null) {
+            return ResponseEntity.notFound().build(); // 없는 접수증 또는 만료(ticket-ttl)
+        }
+        return ResponseEntity.ok(new TicketResponse(ticket));
+    }
+
+    @ExceptionHandler({MemberNotFoundException.class, ItemNotFoundException.class})
+    public ResponseEntity<String> notFound(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> invalidCursor(InvalidCursorException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(OrderQueueFullException.class)
+    public ResponseEntity<String> orderQueueFull(OrderQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(e.getMessage());
+    }
+
+    @ExceptionHandler(OrderQueueClosedException.class)
+    public ResponseEntity<String> orderQueueClosed(OrderQueueClosedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
+    @Data
+    static class TicketResponse {
+
+        private String ticketId;
+        private OrderTicket.Status status;
+        private Long orderId;
+        private String message;
+
+        public TicketResponse(OrderTicket ticket) {
+            this.ticketId = ticket.getId();
+            this.status = ticket.getStatus();
+            this.orderId = ticket.getOrderId();
+            this.message = ticket.getMessage();
+        }
+    }
+
+    @Data
+    static class BatchOrderRequest {
+
+        @NotEmpty
+        @Size(max = 1000)
+        @Valid
+        private List<CreateOrderRequest> orders;
+    }
+
+    @Data
+    static class CreateOrderRequest {
+
+        @NotNull
+        private Long memberId;
+        @NotEmpty
+        @Valid
+        private List<OrderItemRequest> orderItems;
+    }
+
+    @Data
+    static class OrderItemRequest {
+
+        @NotNull
+        private Long itemId;
+        @Positive
+        private int count;
     }
 
     @Data
@@ -112,6 +287,15 @@ public class OrderApiController {
         private T data;
     }
 
+    @Data
+    @AllArgsConstructor
+    static class CursorResult<T> {
+
+        private int count;
+        private T data;
+        private String nextCursor; // 다음 페이지 조회 시 cursor 로 전달, 마지막 페이지면 null
+    }
+
     @Data
     static class OrderItemDto {
 
@@ -1,7 +1,16 @@
 package jpabook.jpashop.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Order;
@@ -9,12 +18,21 @@ import jpabook.jpashop.domain.OrderSearch;
 import jpabook.jpashop.domain.OrderStatus;
 import jpabook.jpashop.repository.OrderRepository;
 import jpabook.jpashop.repository.OrderSimpleQueryDto;
+import jpabook.jpashop.service.OrderQueryService;
+import jpabook.jpashop.service.OrderService;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @RestController
@@ -22,7 +40,15 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class OrderSimpleApiController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(30);
+
     private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final OrderQueryService orderQueryService;
+    private final ObjectMapper objectMapper;
+
     /**
      * XToOne : Collection이 아닌 것을 다룬다.
      * <p>
@@ -107,10 +133,84 @@ public class OrderSimpleApiController {
      */
     @GetMapping("/api/v4/simple-orders")
     public Result odersV4() {
-        List<OrderSimpleQueryDto> orderDtos = orderRepository.findOrderDtos();
+        List<OrderSimpleQueryDto> orderDtos = orderQueryService.findOrderSimpleQueryDtos();
         return new Result(orderDtos.size(), orderDtos);
     }
 
+    /**
+     * <h1>전체 주문 스트리밍 export (NDJSON)</h1>
+     *
+     * V1~V4는 List 전체를 만든 뒤 Result로 감싸서 한 번에 직렬화한다. -> 주문 수 만큼 힙을 차지한다.
+     * 한 줄에 주문 하나씩 JSON으로 바로 써서 내보낸다. -> 주문 수와 상관 없이 메모리 사용량이 일정하다.
+     * StreamingResponseBody는 요청 스레드가 아닌 별도 스레드에서 실행되므로 트랜잭션은 서비스에서 시작한다.
+     * 비동기 요청 기본 timeout(30초)을 넘길 수 있다. -> 이 요청만 EXPORT_TIMEOUT (전역 spring.mvc.async.request-timeout 은 그대로)
+     * timeout, 오류(클라이언트 연결 끊김 등)가 나면 다음 주문을 쓰기 전에 조회를 멈춘다. -> 트랜잭션, 커넥션 반납
+     */
+    @GetMapping(value = "/api/v1/simple-orders/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportOrders(HttpServletRequest request) {
+        ExportInterceptor interceptor = new ExportInterceptor(EXPORT_TIMEOUT);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportInterceptor.class, interceptor);
+
+        StreamingResponseBody body = out -> {
+            try (OutputStream buffered = new BufferedOutputStream(out)) {
+                orderService.forEachOrder(EXPORT_CHUNK_SIZE, order -> {
+                    if (interceptor.isCancelled()) {
+                        throw new CancellationException("order export cancelled (timeout or error)");
+                    }
+                    writeLine(buffered, new SimpleOrderDto(order));
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * export 요청의 timeout 설정, timeout/오류 알림
+     * -> 컨테이너가 응답을 끝내도 StreamingResponseBody 스레드는 멈추지 않으므로 플래그로 알린다.
+     */
+    private static class ExportInterceptor implements CallableProcessingInterceptor {
+
+        private final Duration timeout;
+        private volatile boolean cancelled;
+
+        ExportInterceptor(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        // 비동기 처리를 시작하기 전 -> 전역 timeout 대신 이 요청의 timeout
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            if (request instanceof AsyncWebRequest asyncRequest) {
+                asyncRequest.setTimeout(timeout.toMillis());
+            }
+        }
+
+        @Override
+        public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+            cancelled = true;
+            return RESULT_NONE; // 응답은 기본 처리 (AsyncRequestTimeoutException)
+        }
+
+        @Override
+        public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+            cancelled = true;
+            return RESULT_NONE;
+        }
+    }
+
     @Data
     @AllArgsConstructor
     static class Result<T> {
@@ -0,0 +1,59 @@
+package jpabook.jpashop.api;
+
+import java.time.LocalDate;
+import java.util.List;
+import jpabook.jpashop.repository.DailySalesQueryDto;
+import jpabook.jpashop.repository.SalesRankingQueryDto;
+import jpabook.jpashop.service.SalesRollupService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 매출 리포트 (조회 전용)
+ * 주문 테이블이 아닌 매출 집계(SalesRollup)를 조회한다. -> 최대 jpashop.report.refresh-interval 만큼 늦게 반영된다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ReportApiController {
+
+    private final SalesRollupService salesRollupService;
+
+    @GetMapping("/api/v1/reports/daily")
+    public Result<List<DailySalesQueryDto>> dailySales(
+        @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<DailySalesQueryDto> result = salesRollupService.findDailySales(from, to);
+        return new Result<>(result.size(), result);
+    }
+
+    @GetMapping("/api/v1/reports/items")
+    public Result<List<SalesRankingQueryDto>> itemRanking(
+        @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<SalesRankingQueryDto> result = salesRollupService.findItemRanking(from, to, limit);
+        return new Result<>(result.size(), result);
+    }
+
+    @GetMapping("/api/v1/reports/members")
+    public Result<List<SalesRankingQueryDto>> memberRanking(
+        @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<SalesRankingQueryDto> result = salesRollupService.findMemberRanking(from, to, limit);
+        return new Result<>(result.size(), result);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class Result<T> {
+
+        private int count;
+        private T data;
+    }
+}
@@ -1,9 +1,9 @@
 package jpabook.jpashop.controller;
 
 import jakarta.validation.Valid;
-import java.util.List;
 import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.service.MemberPage;
 import jpabook.jpashop.service.MemberService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +12,7 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 @RequiredArgsConstructor
@@ -39,10 +40,18 @@ public class MemberController {
         return "redirect:/";
     }
 
+    // 회원 목록 -> 한 페이지씩 (다음 링크로 이어서 조회)
+    // total=true 이면 전체 회원 수 추정치도 보여준다. (API 와 같이 기본은 조회하지 않는다)
     @GetMapping("/members")
-    public String list(Model model) {
-        List<Member> members = memberService.findMembers();
-        model.addAttribute("members", members);
+    public String list(@RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam(value = "limit", defaultValue = "100") int limit,
+        @RequestParam(value = "total", defaultValue = "false") boolean total, Model model) {
+        MemberPage page = memberService.findMemberPage(cursor, limit, total);
+        model.addAttribute("members", page.getMembers());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("totalEstimate", page.getTotalEstimate());
+        model.addAttribute("limit", limit);
+        model.addAttribute("total", total);
         return "members/memberList";
     }
 }
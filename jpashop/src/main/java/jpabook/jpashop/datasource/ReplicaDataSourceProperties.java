@@ -0,0 +1,23 @@
+package jpabook.jpashop.datasource;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 읽기 전용 복제본(replica) 접속 정보 (jpashop.datasource.replica)
+ * url 이 있을 때만 읽기/쓰기 분리가 켜진다. 풀 설정은 jpashop.datasource.replica.hikari.*
+ */
+@Getter
+@Setter
+@ConfigurationProperties("jpashop.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private String url;
+    private String username;
+    private String password;
+
+    private boolean readYourWrites = true; // 같은 요청 안에서 쓰기 트랜잭션 이후의 읽기는 primary (복제 지연)
+    private Duration retryInterval = Duration.ofSeconds(10); // replica 연결 실패 후 이 시간 동안은 primary 로 읽는다.
+}
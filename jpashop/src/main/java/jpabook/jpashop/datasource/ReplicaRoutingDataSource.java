@@ -0,0 +1,88 @@
+package jpabook.jpashop.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 읽기/쓰기 분리
+ *
+ * @Transactional(readOnly = true) -> replica, 그 외 -> primary
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 설정되지 않았다. -> LazyConnectionDataSourceProxy 로 감싸서 첫 쿼리 때 결정
+ *
+ * 트랜잭션 밖의 조회(OSIV 지연 로딩 등)는 readOnly 가 아니다. -> primary
+ * -> replica 로 보내려면 조회, 지연 로딩까지 @Transactional(readOnly = true) 서비스 안에서 끝낸다.
+ *
+ * 복제 지연 대비
+ * -> 같은 HTTP 요청 안에서 쓰기 트랜잭션 이후의 읽기는 primary (readYourWrites, 수정 후 바로 다시 조회하는 API)
+ *    요청 속성(request attribute)에 남긴다. -> 스레드에 남지 않아서 다른 요청에 영향이 없다.
+ * -> 다음 요청의 읽기는 replica 라서 복제 지연만큼 이전 값이 보일 수 있다. (요청 밖의 스케줄러, 워커 스레드도 마찬가지)
+ * -> replica 연결에 실패하면 retryInterval 동안 primary 로 읽는다.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    static final String WROTE_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".WROTE";
+
+    private final boolean readYourWrites;
+    private final long retryIntervalNanos;
+    private volatile long replicaDownUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, boolean readYourWrites,
+        Duration retryInterval) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.readYourWrites = readYourWrites;
+        this.retryIntervalNanos = retryInterval.toNanos();
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        RequestAttributes request = readYourWrites ? RequestContextHolder.getRequestAttributes() : null;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (request != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+            return PRIMARY;
+        }
+        if (request != null && request.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return PRIMARY;
+        }
+        if (System.nanoTime() - replicaDownUntil < 0) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        DataSource target = getResolvedDataSources().get(key);
+        if (!REPLICA.equals(key)) {
+            return target.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            replicaDownUntil = System.nanoTime() + retryIntervalNanos;
+            log.warn("replica connection failed, read from primary for {}ms", retryIntervalNanos / 1_000_000, e);
+            return getResolvedDefaultDataSource().getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+}
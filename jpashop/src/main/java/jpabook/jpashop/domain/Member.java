@@ -6,7 +6,9 @@ import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotEmpty;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,10 +16,14 @@ import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+// 회원명 unique -> 가입 시 중복 검증(MemberService), 주문 검색(회원명 앞부분 일치)
+@Table(indexes = @Index(name = Member.NAME_UNIQUE_INDEX, columnList = "name", unique = true))
 @Getter
 @Setter
 public class Member {
 
+    public static final String NAME_UNIQUE_INDEX = "uk_member_name";
+
     @Id
     @GeneratedValue
     @Column(name = "member_id")
@@ -8,6 +8,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -22,7 +23,11 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_order_date_id", columnList = "order_date, order_id"), // 커서 페이징
+    @Index(name = "idx_orders_status_order_date", columnList = "status, order_date"), // 주문 검색
+    @Index(name = "idx_orders_rollup", columnList = "rolled_up_status, status") // 매출 집계
+})
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -56,6 +61,27 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
+    private LocalDateTime cancelDate; // 취소 시간
+
+    /**
+     * 매출 집계(SalesRollup)에 마지막으로 반영된 상태 (null 이면 아직 반영 전)
+     * 집계는 id/시간 대신 이 값으로 대상을 고른다. -> 늦게 커밋된 주문, 취소도 다음 주기에 반영된다.
+     * 집계만 벌크 update 로 바꾼다. -> 주문/취소 트랜잭션이 엔티티를 저장하면서 덮어쓰지 않도록 updatable = false
+     */
+    @Setter(AccessLevel.NONE)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rolled_up_status", updatable = false)
+    private OrderStatus rolledUpStatus;
+
+    /**
+     * 전체 주문 가격 (주문상품 가격 * 수량의 합)
+     * 주문상품을 추가할 때 같이 계산해서 저장한다. -> 목록, 집계에서 orderItems를 로딩하지 않는다.
+     * 취소해도 금액은 그대로 남긴다. 매출 집계는 status로 구분한다.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "total_price")
+    private int totalPrice;
+
     // == 연관관계 편의 메서드 ==
     public void setMember(Member member) {
         this.member = member;
@@ -65,6 +91,7 @@ public class Order {
     public void addOrderItem(OrderItem orderItem) {
         orderItems.add(orderItem);
         orderItem.setOrder(this);
+        totalPrice += orderItem.getTotalPrice();
     }
 
     public void setDelivery(Delivery delivery) {
@@ -92,24 +119,22 @@ public class Order {
      * 주문 취소
      */
     public void cancel() {
-        if (delivery.getStatus() == DeliveryStatus.COMP) {
-            throw new IllegalStateException("이미 배송완료된 상품은 취소가 불가능합니다.");
-        }
-        this.setStatus(OrderStatus.CANCEL);
+        changeStatusToCancel();
         for (OrderItem orderItem : orderItems) { // this 생략해도 된다.
             orderItem.cancel();
         }
     }
 
-    // == 조회 로직 == //
-
     /**
-     * 전체 주문 가격 조회
+     * 주문 상태만 취소로 변경 (재고 복구 X)
+     * 재고를 엔티티 변경 감지가 아닌 곳(재고 예약 등)에서 관리할 때 사용한다.
      */
-    public int getTotalPrice() {
-        return orderItems.stream()
-            .mapToInt(OrderItem::getTotalPrice)
-            .sum();
+    public void changeStatusToCancel() {
+        if (delivery.getStatus() == DeliveryStatus.COMP) {
+            throw new IllegalStateException("이미 배송완료된 상품은 취소가 불가능합니다.");
+        }
+        this.setStatus(OrderStatus.CANCEL);
+        this.setCancelDate(LocalDateTime.now());
     }
 }
 
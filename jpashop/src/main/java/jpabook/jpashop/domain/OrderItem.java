@@ -41,12 +41,18 @@ public class OrderItem {
     // == 생성 메서드 == //
     // Item 에 수량이 있는데 왜 가격을 따로 받는가? 쿠폰 적용, 할이 정책 등이 포함될 수 있다.
     public static OrderItem createOrderItem(Item item, int orderPrice, int count) {
+        OrderItem orderItem = createReservedOrderItem(item, orderPrice, count);
+
+        item.removeStock(count);
+        return orderItem;
+    }
+
+    // 재고가 이미 차감(예약)된 경우 -> item.removeStock() 호출하지 않는다.
+    public static OrderItem createReservedOrderItem(Item item, int orderPrice, int count) {
         OrderItem orderItem = new OrderItem();
         orderItem.setItem(item);
         orderItem.setOrderPrice(orderPrice);
         orderItem.setCount(count);
-
-        item.removeStock(count);
         return orderItem;
     }
 
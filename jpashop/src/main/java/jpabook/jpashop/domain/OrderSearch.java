@@ -1,13 +1,20 @@
 package jpabook.jpashop.domain;
 
+import java.time.LocalDate;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
 
 @Getter
 @Setter
 public class OrderSearch {
 
-    private String memberName; // 회원 이름
+    private String memberName; // 회원 이름 (앞부분 일치)
     private OrderStatus orderStatus; // 주문 상태(ORDER, CANCEL)
 
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate orderDateFrom; // 주문일 시작 (포함)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate orderDateTo; // 주문일 끝 (포함)
+
 }
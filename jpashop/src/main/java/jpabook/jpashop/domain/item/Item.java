@@ -1,5 +1,6 @@
 package jpabook.jpashop.domain.item;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorColumn;
 import jakarta.persistence.Entity;
@@ -8,19 +9,28 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Version;
 import java.util.ArrayList;
 import java.util.List;
 import jpabook.jpashop.domain.Category;
 import jpabook.jpashop.exception.NoEnoughStockException;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * 추상 클래스는 인스턴스를 생성할 수 없다.
  * 상속되어 사용된다.
  * 여기서는 Movie, Album, Book 에 상속되어 사용 된다.
+ *
+ * 2차 캐시 -> 조회가 변경보다 훨씬 많다.
+ * READ_WRITE: 변경 감지로 수정하면 커밋 시 캐시도 갱신
+ * 재고 증감(ItemRepository 네이티브 UPDATE)은 해당 상품만 캐시에서 지운다. -> JPQL 벌크 연산은 리전 전체를 무효화한다.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item")
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "dtype")
 @Getter
@@ -36,6 +46,9 @@ public abstract class Item {
     private int price;
     private int stockQuantity;
 
+    @Version
+    private Long version; // 낙관적 락 -> 변경될 때마다 증가한다.
+
     // Collection은 field에서 초기화하자
     // 초기화에 대한 고민 필요 없다 -> null 체크 불필요
     // hibernate 는 collection을 래핑한다.
@@ -0,0 +1,10 @@
+package jpabook.jpashop.domain.sales;
+
+/**
+ * 매출 집계 단위 (일자는 항상 포함)
+ */
+public enum SalesDimension {
+    DAY, // 일자별 (targetId = 0)
+    ITEM, // 일자 + 상품별 (targetId = item id)
+    MEMBER // 일자 + 회원별 (targetId = member id)
+}
@@ -0,0 +1,62 @@
+package jpabook.jpashop.domain.sales;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDate;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 매출 집계 (일자 + 집계 단위 당 한 row)
+ *
+ * 주문 시 더하고, 취소 시 뺀다. -> 취소되지 않은 주문의 매출만 남는다.
+ * 리포트는 orders, order_item 대신 이 테이블만 읽는다.
+ */
+@Entity
+@Table(name = "sales_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_sales_rollup", columnNames = {"dimension", "sales_date", "target_id"})
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SalesRollup {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "sales_rollup_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private SalesDimension dimension;
+
+    private LocalDate salesDate; // 주문일
+
+    @Column(name = "target_id")
+    private Long targetId;
+
+    private long orderCount; // 주문 수
+    private long quantity; // 주문 수량
+    private long revenue; // 매출 (주문가격 * 수량)
+
+    // == 생성 메서드 == //
+    public static SalesRollup createSalesRollup(SalesDimension dimension, LocalDate salesDate, Long targetId) {
+        SalesRollup salesRollup = new SalesRollup();
+        salesRollup.dimension = dimension;
+        salesRollup.salesDate = salesDate;
+        salesRollup.targetId = targetId;
+        return salesRollup;
+    }
+
+    // == 비즈니스 로직 == //
+    public void add(long orderCount, long quantity, long revenue) {
+        this.orderCount += orderCount;
+        this.quantity += quantity;
+        this.revenue += revenue;
+    }
+}
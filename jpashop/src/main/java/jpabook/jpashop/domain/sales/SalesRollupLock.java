@@ -0,0 +1,32 @@
+package jpabook.jpashop.domain.sales;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 매출 집계 잠금 (row 하나)
+ *
+ * 집계 전에 이 row를 잠근다. -> 서버가 여러 대여도 집계는 한 번에 하나만 돈다.
+ * 어디까지 반영했는지는 주문(Order.rolledUpStatus)에 남긴다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SalesRollupLock {
+
+    public static final Long ID = 1L;
+
+    @Id
+    @Column(name = "sales_rollup_lock_id")
+    private Long id;
+
+    public static SalesRollupLock createSalesRollupLock() {
+        SalesRollupLock lock = new SalesRollupLock();
+        lock.id = ID;
+        return lock;
+    }
+}
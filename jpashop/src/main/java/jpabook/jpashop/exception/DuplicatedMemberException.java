@@ -0,0 +1,23 @@
+package jpabook.jpashop.exception;
+
+/**
+ * 회원명 중복 -> 기존 코드와 같이 IllegalStateException 으로도 잡을 수 있다.
+ */
+public class DuplicatedMemberException extends IllegalStateException {
+
+    public DuplicatedMemberException() {
+        super();
+    }
+
+    public DuplicatedMemberException(String message) {
+        super(message);
+    }
+
+    public DuplicatedMemberException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public DuplicatedMemberException(Throwable cause) {
+        super(cause);
+    }
+}
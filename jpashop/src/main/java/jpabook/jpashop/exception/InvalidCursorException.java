@@ -0,0 +1,23 @@
+package jpabook.jpashop.exception;
+
+/**
+ * 잘못된(변조된) 페이징 cursor (OrderCursor.decode)
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException() {
+        super();
+    }
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidCursorException(Throwable cause) {
+        super(cause);
+    }
+}
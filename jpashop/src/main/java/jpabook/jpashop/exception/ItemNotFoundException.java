@@ -0,0 +1,23 @@
+package jpabook.jpashop.exception;
+
+/**
+ * 없는 상품 (주문할 때)
+ */
+public class ItemNotFoundException extends IllegalArgumentException {
+
+    public ItemNotFoundException() {
+        super();
+    }
+
+    public ItemNotFoundException(String message) {
+        super(message);
+    }
+
+    public ItemNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ItemNotFoundException(Throwable cause) {
+        super(cause);
+    }
+}
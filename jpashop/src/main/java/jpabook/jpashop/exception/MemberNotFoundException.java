@@ -0,0 +1,23 @@
+package jpabook.jpashop.exception;
+
+/**
+ * 없는 회원 -> 기존 코드와 같이 IllegalArgumentException 으로도 잡을 수 있다.
+ */
+public class MemberNotFoundException extends IllegalArgumentException {
+
+    public MemberNotFoundException() {
+        super();
+    }
+
+    public MemberNotFoundException(String message) {
+        super(message);
+    }
+
+    public MemberNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public MemberNotFoundException(Throwable cause) {
+        super(cause);
+    }
+}
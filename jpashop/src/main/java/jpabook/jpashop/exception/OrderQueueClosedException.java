@@ -0,0 +1,23 @@
+package jpabook.jpashop.exception;
+
+/**
+ * 종료 중이라 주문을 받지 않음 (AsyncOrderService) -> 큐가 가득 찬 경우(OrderQueueFullException)와 달리 잠시 후 재시도해도 소용없다.
+ */
+public class OrderQueueClosedException extends RuntimeException {
+
+    public OrderQueueClosedException() {
+        super();
+    }
+
+    public OrderQueueClosedException(String message) {
+        super(message);
+    }
+
+    public OrderQueueClosedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public OrderQueueClosedException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,20 @@
+package jpabook.jpashop.exception;
+
+public class OrderQueueFullException extends RuntimeException {
+
+    public OrderQueueFullException() {
+        super();
+    }
+
+    public OrderQueueFullException(String message) {
+        super(message);
+    }
+
+    public OrderQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public OrderQueueFullException(Throwable cause) {
+        super(cause);
+    }
+}
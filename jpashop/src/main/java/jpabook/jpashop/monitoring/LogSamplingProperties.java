@@ -0,0 +1,18 @@
+package jpabook.jpashop.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 로그 샘플링 비율 (jpashop.logging.sampling) -> SampledLogger
+ */
+@Getter
+@Setter
+@ConfigurationProperties("jpashop.logging.sampling")
+public class LogSamplingProperties {
+
+    private Map<String, Double> rates = new HashMap<>(); // 로거 이름(앞부분) -> 남길 비율 0 ~ 1, 없으면 1 (전부)
+}
@@ -0,0 +1,40 @@
+package jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties({QueryBudgetProperties.class, LogSamplingProperties.class})
+public class MonitoringConfig implements WebMvcConfigurer {
+
+    private final QueryCounter queryCounter;
+    private final QueryBudgetProperties queryBudget;
+    private final MeterRegistry meterRegistry;
+    private final LogSamplingProperties logSampling;
+
+    @PostConstruct
+    void configureLogSampling() {
+        SampledLogger.configure(logSampling.getRates());
+    }
+
+    // 스프링 빈으로 만든 QueryCounter를 하이버네이트에 등록
+    @Bean
+    HibernatePropertiesCustomizer statementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCounter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryCountInterceptor(queryCounter, queryBudget, meterRegistry))
+            .excludePathPatterns("/css/**", "/js/**", "/*.ico", "/error", "/actuator/**");
+    }
+}
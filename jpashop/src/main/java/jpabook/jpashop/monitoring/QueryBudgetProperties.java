@@ -0,0 +1,24 @@
+package jpabook.jpashop.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 요청 하나에서 허용하는 SQL 수 (jpashop.query-budget)
+ */
+@Getter
+@Setter
+@ConfigurationProperties("jpashop.query-budget")
+public class QueryBudgetProperties {
+
+    private boolean fail = false; // true: 초과하는 SQL 실행 시점에 예외, false: 요청이 끝난 뒤 경고 로그
+    private long defaultMax = Long.MAX_VALUE;
+    private Map<String, Long> endpoints = new HashMap<>(); // URI 패턴 -> 최대 SQL 수
+
+    public long maxOf(String uri) {
+        return endpoints.getOrDefault(uri, defaultMax);
+    }
+}
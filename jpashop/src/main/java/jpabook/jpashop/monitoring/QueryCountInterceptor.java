@@ -0,0 +1,56 @@
+package jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 요청 하나에서 실행된 SQL 수를 URI 패턴별로 기록한다. (http.server.requests.statements)
+ * OSIV가 켜져 있으니 뷰 렌더링 중 지연 로딩 쿼리까지 포함된다. -> afterCompletion 에서 기록
+ *
+ * URI 패턴별 예산(jpashop.query-budget)을 넘으면 경고 로그를 남긴다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryCountInterceptor implements HandlerInterceptor {
+
+    private final QueryCounter queryCounter;
+    private final QueryBudgetProperties queryBudget;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        queryCounter.start(queryBudget.maxOf(uriOf(request)), queryBudget.isFail());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+        Exception ex) {
+        String uri = uriOf(request);
+        long count = queryCounter.count();
+        queryCounter.clear();
+
+        DistributionSummary.builder("http.server.requests.statements")
+            .description("SQL statements executed per request")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(count);
+
+        long budget = queryBudget.maxOf(uri);
+        if (count > budget) {
+            log.warn("query budget exceeded. uri={}, count={}, budget={}", uri, count, budget);
+        }
+    }
+
+    private String uriOf(HttpServletRequest request) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return uri == null ? "UNKNOWN" : uri.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package jpabook.jpashop.monitoring;
+
+import jpabook.jpashop.exception.QueryBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * 스레드(요청) 단위 SQL 실행 횟수
+ *
+ * 하이버네이트가 SQL을 실행하기 전에 StatementInspector.inspect()를 호출한다. -> 여기서 횟수만 센다.
+ * 하이버네이트 통계(Statistics)는 애플리케이션 전체 누적값이라 요청 하나에서 몇 번 나갔는지 알 수 없다.
+ *
+ * 예산(budget)을 정하고 fail 이면 예산을 넘는 SQL을 실행하려는 순간 예외 -> N+1 이 어디서 시작됐는지 스택으로 확인
+ */
+@Component
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<Count> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Count count = COUNT.get();
+        if (count != null && ++count.value > count.budget && count.fail) {
+            throw new QueryBudgetExceededException(
+                "query budget exceeded. budget=" + count.budget + ", sql=" + sql);
+        }
+        return sql;
+    }
+
+    // 측정 시작 -> start() 하지 않은 스레드의 SQL은 세지 않는다.
+    public void start() {
+        start(Long.MAX_VALUE, false);
+    }
+
+    public void start(long budget, boolean fail) {
+        COUNT.set(new Count(budget, fail));
+    }
+
+    public long count() {
+        Count count = COUNT.get();
+        return count == null ? 0 : count.value;
+    }
+
+    public void clear() {
+        COUNT.remove();
+    }
+
+    private static class Count {
+
+        private final long budget;
+        private final boolean fail;
+        private long value;
+
+        Count(long budget, boolean fail) {
+            this.budget = budget;
+            this.fail = fail;
+        }
+    }
+}
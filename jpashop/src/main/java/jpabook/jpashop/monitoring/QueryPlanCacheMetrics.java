@@ -0,0 +1,37 @@
+package jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * 쿼리 플랜 캐시(HQL -> SQL 변환 결과) hit ratio
+ * hit/miss 건수는 hibernate-micrometer가 hibernate.cache.query.plan 으로 등록한다. (generate_statistics: true 필요)
+ *
+ * ratio가 낮으면 요청마다 JPQL을 다시 파싱하고 있다는 뜻 -> 동적으로 만드는 쿼리 문자열을 확인
+ */
+@Component
+public class QueryPlanCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public QueryPlanCacheMetrics(EntityManagerFactory emf) {
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hibernate.cache.query.plan.hit.ratio", statistics, QueryPlanCacheMetrics::hitRatio)
+            .register(registry);
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hit = statistics.getQueryPlanCacheHitCount();
+        long total = hit + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+}
@@ -0,0 +1,49 @@
+package jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * 레포지토리 메서드별 실행 시간 (repository.invocations)
+ * 퍼센타일/히스토그램 설정은 application.yml 의 management.metrics.distribution
+ *
+ * 호출 로그 -> 레포지토리 로거(DEBUG)로 샘플링해서 남긴다. (SampledLogger, jpashop.logging.sampling.rates)
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("@within(org.springframework.stereotype.Repository)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = sample.stop(Timer.builder("repository.invocations")
+                .description("Repository method latency")
+                .tag("repository", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("exception", exception)
+                .register(meterRegistry));
+            SampledLogger.getLogger(joinPoint.getSignature().getDeclaringType())
+                .atDebug()
+                .addKeyValue("method", joinPoint.getSignature().getName())
+                .addKeyValue("elapsedUs", () -> TimeUnit.NANOSECONDS.toMicros(elapsed))
+                .addKeyValue("exception", exception)
+                .log("repository call");
+        }
+    }
+}
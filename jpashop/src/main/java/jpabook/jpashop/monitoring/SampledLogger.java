@@ -0,0 +1,83 @@
+package jpabook.jpashop.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+
+/**
+ * 샘플링 로거 -> 로그 호출 중 rate 비율만 남긴다. (1: 전부, 0.01: 100번에 1번, 0: 남기지 않음)
+ *
+ * 호출이 많은 경로(레포지토리)에서 매번 로그를 남기면 메시지 포맷팅, 인자 계산, 출력이 처리량을 깎는다.
+ * 레벨이 꺼져 있거나 샘플에서 빠지면 NOP 빌더를 돌려준다.
+ * -> 인자를 Supplier로 넘기면(addKeyValue(key, () -> ...)) 남길 때만 계산한다.
+ * 값은 키-값(addKeyValue)으로 남긴다. -> 로그 패턴의 %kvp (logback-spring.xml), 1보다 작으면 sampleRate도 같이 남긴다.
+ *
+ * rate는 로거 이름 앞부분으로 설정한다. (jpashop.logging.sampling.rates) -> 가장 길게 일치하는 값
+ */
+public final class SampledLogger {
+
+    private static final Map<String, SampledLogger> LOGGERS = new ConcurrentHashMap<>();
+    private static volatile Map<String, Double> rates = Map.of();
+
+    private final Logger logger;
+    private volatile double rate;
+
+    private SampledLogger(Logger logger) {
+        this.logger = logger;
+        this.rate = rateOf(logger.getName());
+    }
+
+    public static SampledLogger getLogger(Class<?> type) {
+        return LOGGERS.computeIfAbsent(type.getName(), name -> new SampledLogger(LoggerFactory.getLogger(name)));
+    }
+
+    // 이미 만든 로거에도 반영한다.
+    static void configure(Map<String, Double> newRates) {
+        rates = Map.copyOf(newRates);
+        LOGGERS.values().forEach(sampled -> sampled.rate = rateOf(sampled.logger.getName()));
+    }
+
+    public LoggingEventBuilder atDebug() {
+        return at(Level.DEBUG);
+    }
+
+    public LoggingEventBuilder atInfo() {
+        return at(Level.INFO);
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    private LoggingEventBuilder at(Level level) {
+        double current = rate;
+        if (!logger.isEnabledForLevel(level) || !sampled(current)) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        LoggingEventBuilder builder = logger.atLevel(level);
+        return current < 1 ? builder.addKeyValue("sampleRate", current) : builder;
+    }
+
+    private static boolean sampled(double rate) {
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static double rateOf(String name) {
+        String matched = null;
+        double rate = 1;
+        for (Map.Entry<String, Double> entry : rates.entrySet()) {
+            String prefix = entry.getKey();
+            boolean matches = name.equals(prefix) || name.startsWith(prefix + ".");
+            if (matches && (matched == null || prefix.length() > matched.length())) {
+                matched = prefix;
+                rate = entry.getValue();
+            }
+        }
+        return rate;
+    }
+}
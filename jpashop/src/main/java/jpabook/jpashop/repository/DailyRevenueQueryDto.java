@@ -0,0 +1,18 @@
+package jpabook.jpashop.repository;
+
+import java.time.LocalDate;
+import lombok.Data;
+
+@Data
+public class DailyRevenueQueryDto {
+
+    private LocalDate date;
+    private long orderCount;
+    private long revenue;
+
+    public DailyRevenueQueryDto(LocalDate date, long orderCount, long revenue) {
+        this.date = date;
+        this.orderCount = orderCount;
+        this.revenue = revenue;
+    }
+}
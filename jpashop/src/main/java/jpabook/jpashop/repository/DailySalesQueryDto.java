@@ -0,0 +1,20 @@
+package jpabook.jpashop.repository;
+
+import java.time.LocalDate;
+import lombok.Data;
+
+@Data
+public class DailySalesQueryDto {
+
+    private LocalDate date;
+    private long orderCount;
+    private long quantity;
+    private long revenue;
+
+    public DailySalesQueryDto(LocalDate date, long orderCount, long quantity, long revenue) {
+        this.date = date;
+        this.orderCount = orderCount;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+}
@@ -1,15 +1,26 @@
 package jpabook.jpashop.repository;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.CacheStoreMode;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
 import java.util.List;
 import jpabook.jpashop.domain.item.Item;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.NativeQuery;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Repository
 @RequiredArgsConstructor
 public class ItemRepository {
 
+    // 재고 UPDATE 가 무효화할 쿼리 캐시 공간 -> 이 공간을 쓰는 엔티티, 캐시된 쿼리가 없다.
+    private static final String STOCK_QUERY_SPACE = "item_stock";
+
     private final EntityManager em;
 
     public void save(Item item) {
@@ -29,8 +40,154 @@ public class ItemRepository {
         return em.find(Item.class, id);
     }
 
+    // 쿼리 캐시 -> item 테이블이 변경되면 자동으로 무효화된다.
     public List<Item> findAll() {
         return em.createQuery("select i from Item i", Item.class)
+            .setHint(HibernateHints.HINT_CACHEABLE, true)
+            .getResultList();
+    }
+
+    public List<Item> findByIds(List<Long> ids) {
+        return em.createQuery("select i from Item i where i.id in :ids", Item.class)
+            .setParameter("ids", ids)
             .getResultList();
     }
+
+    // 재고 수량만 조회 -> 엔티티를 영속성 컨텍스트에 올리지 않는다.
+    public Integer findStockQuantity(Long id) {
+        return em.createQuery("select i.stockQuantity from Item i where i.id = :id", Integer.class)
+            .setParameter("id", id)
+            .getResultStream()
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * 벌크 연산으로 재고 증감 (quantity가 음수면 차감)
+     * 영속성 컨텍스트를 거치지 않고 DB에 바로 반영한다. -> 이미 조회한 엔티티의 값은 갱신되지 않는다.
+     * 벌크 연산은 @Version을 올려주지 않으니 직접 증가시킨다.
+     */
+    public int addStockQuantity(Long id, int quantity) {
+        return updateStock("update item"
+                + " set stock_quantity = stock_quantity + :quantity, version = version + 1"
+                + " where item_id = :id", id, quantity);
+    }
+
+    /**
+     * 조건부 UPDATE 재고 차감
+     *
+     * select 후 자바에서 계산하고 변경 감지로 update(read-modify-write)하면 동시 주문 시 갱신 분실이 생긴다.
+     * 재고 확인과 차감을 update 한 번으로 처리한다. -> DB가 row 단위로 원자적으로 처리
+     *
+     * @return 재고가 부족하면(0 row) false
+     */
+    public boolean decreaseStock(Long id, int quantity) {
+        int updated = updateStock("update item"
+                + " set stock_quantity = stock_quantity - :quantity, version = version + 1"
+                + " where item_id = :id and stock_quantity >= :quantity", id, quantity);
+        refreshIfLoaded(id);
+        return updated == 1;
+    }
+
+    public void increaseStock(Long id, int quantity) {
+        addStockQuantity(id, quantity);
+        refreshIfLoaded(id);
+    }
+
+    /**
+     * 낙관적 락(@Version) 재고 차감
+     *
+     * 재고와 version을 조회해서 계산한 뒤 version이 그대로일 때만 update 한다.
+     * 그 사이 다른 트랜잭션이 먼저 변경했으면(0 row) 다시 조회해서 maxAttempts 만큼 재시도한다.
+     *
+     * @return 재고가 부족하면 false
+     * @throws OptimisticLockException 재시도를 모두 실패한 경우
+     * @throws IllegalArgumentException 상품이 없는 경우
+     */
+    public boolean decreaseStockOptimistic(Long id, int quantity, int maxAttempts) {
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            Object[] stock = em.createQuery("select i.stockQuantity, i.version from Item i where i.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 상품입니다. itemId=" + id));
+            int restStock = (Integer) stock[0] - quantity;
+            if (restStock < 0) {
+                return false;
+            }
+
+            int updated = stockUpdate("update item"
+                    + " set stock_quantity = :restStock, version = version + 1"
+                    + " where item_id = :id and version = :version")
+                .setParameter("restStock", restStock)
+                .setParameter("id", id)
+                .setParameter("version", stock[1])
+                .executeUpdate();
+            evict(id);
+            if (updated == 1) {
+                refreshIfLoaded(id);
+                return true;
+            }
+        }
+        throw new OptimisticLockException("재고 변경 충돌로 재시도 횟수를 초과했습니다. itemId=" + id);
+    }
+
+    /**
+     * 재고 UPDATE -> 2차 캐시(item 리전)에서 이 상품만 지운다.
+     *
+     * JPQL 벌크 연산(update Item)은 item 리전 전체와 item 테이블을 쓰는 쿼리 캐시를 모두 무효화한다.
+     * -> 주문(재고 차감)마다 상품 캐시가 통째로 비워져서 쓰기가 많으면 캐시 효과가 없다.
+     * 네이티브 UPDATE + item 테이블이 아닌 query space(STOCK_QUERY_SPACE) -> 하이버네이트는 아무 리전도 비우지 않는다.
+     * 쿼리 캐시는 id 목록만 저장하므로 재고가 바뀌어도 그대로 쓸 수 있다. (엔티티는 리전에서 다시 읽는다)
+     */
+    private int updateStock(String sql, Long id, int quantity) {
+        int updated = stockUpdate(sql)
+            .setParameter("quantity", quantity)
+            .setParameter("id", id)
+            .executeUpdate();
+        evict(id);
+        return updated;
+    }
+
+    // 다른 query space 라서 auto flush 가 되지 않는다. -> 아직 insert 되지 않은 상품이 있을 수 있으므로 먼저 flush
+    private NativeQuery<?> stockUpdate(String sql) {
+        em.flush();
+        return em.createNativeQuery(sql)
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace(STOCK_QUERY_SPACE);
+    }
+
+    /**
+     * 지금 지우고 트랜잭션이 끝난 뒤에 한 번 더 지운다.
+     * -> 커밋 전에 다른 트랜잭션이 DB의 옛 값을 읽어서 캐시에 다시 넣을 수 있다.
+     * 이 트랜잭션에서 조회하는 엔티티는 캐시에 넣지 않는다. -> 커밋 전 재고(롤백될 수 있다)가 캐시에 들어가지 않는다.
+     * 트랜잭션이 끝나면 다시 캐시에 넣는다. (USE) -> OSIV 면 영속성 컨텍스트가 요청 끝까지 남아서 이후 조회도 BYPASS 가 된다.
+     * 트랜잭션 밖이면 BYPASS 를 걸지 않는다. (되돌릴 시점이 없다)
+     */
+    private void evict(Long id) {
+        Cache cache = em.getEntityManagerFactory().getCache();
+        cache.evict(Item.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            em.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(Item.class, id);
+                    em.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.USE);
+                }
+            });
+        }
+    }
+
+    /**
+     * 벌크 연산은 영속성 컨텍스트를 무시한다.
+     * 이미 조회된 엔티티가 있으면 DB 값으로 다시 맞춰준다. (변경 감지로 예전 값을 덮어쓰지 않도록)
+     * 아직 조회 전이면 getReference()는 프록시만 만들고 select 하지 않는다.
+     */
+    private void refreshIfLoaded(Long id) {
+        Item item = em.getReference(Item.class, id);
+        if (em.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(item)) {
+            em.refresh(item);
+        }
+    }
 }
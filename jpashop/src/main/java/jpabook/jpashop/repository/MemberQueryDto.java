@@ -0,0 +1,21 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.Address;
+import lombok.Data;
+
+/**
+ * 회원 목록 조회용 DTO -> 엔티티가 아니므로 영속성 컨텍스트, 스냅샷 없이 필요한 컬럼만 조회한다.
+ */
+@Data
+public class MemberQueryDto {
+
+    private Long memberId;
+    private String name;
+    private Address address;
+
+    public MemberQueryDto(Long memberId, String name, Address address) {
+        this.memberId = memberId;
+        this.name = name;
+        this.address = address;
+    }
+}
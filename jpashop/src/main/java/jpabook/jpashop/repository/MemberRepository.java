@@ -2,12 +2,19 @@ package jpabook.jpashop.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import jpabook.jpashop.domain.Member;
-import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
-@Slf4j
 @Repository
 public class MemberRepository {
 
@@ -19,25 +26,113 @@ public class MemberRepository {
 //    private EntityManagerFactory entityManagerFactory;
 
     public void save(Member member) {
-        log.info("save - em = {}", em.getClass());
         em.persist(member);
     }
 
+    // insert/update를 커밋 전에 바로 보낸다. -> unique 제약 위반을 호출한 곳에서 확인
+    public void flush() {
+        em.flush();
+    }
+
     public Member findOne(Long id) {
-        log.info("findOne() - em = {}", em.getClass());
         return em.find(Member.class, id);
     }
 
     public List<Member> findAll() {
-        log.info("findAll() - em = {}", em.getClass());
         return em.createQuery("select m from Member m", Member.class) // 영속성 컨텍스트 flush()가 일어난다.
             .getResultList();
     }
 
+    /**
+     * 회원 목록 커서(keyset) 페이징 + DTO 조회 (회원 id 순)
+     *
+     * findAll()은 회원 테이블 전체를 엔티티로 읽는다. -> 필요한 컬럼만 limit 개
+     * 마지막으로 조회한 회원 id 다음부터 읽는다. -> PK 인덱스로 시작 위치를 바로 찾는다. (offset 처럼 앞 row를 읽고 버리지 않는다)
+     *
+     * @param cursor null 이면 첫 페이지
+     */
+    public List<MemberQueryDto> findAllDto(Long cursor, int limit) {
+        String jpql = "select new jpabook.jpashop.repository.MemberQueryDto(m.id, m.name, m.address)"
+            + " from Member m";
+        if (cursor != null) {
+            jpql += " where m.id > :cursor";
+        }
+        jpql += " order by m.id";
+
+        TypedQuery<MemberQueryDto> query = em.createQuery(jpql, MemberQueryDto.class)
+            .setMaxResults(limit);
+        if (cursor != null) {
+            query.setParameter("cursor", cursor);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * 회원 수 추정치 -> count(*)는 테이블(인덱스) 전체를 읽는다. DB가 관리하는 통계 값을 읽는다.
+     * H2, MySQL, PostgreSQL 만 지원 -> 그 외 DB 이거나 통계가 아직 없으면 null
+     * (쿼리를 실행했다가 실패하면 트랜잭션이 rollback-only 가 되므로 dialect 로 먼저 거른다)
+     */
+    public Long estimateCount() {
+        String sql = estimateCountSql();
+        if (sql == null) {
+            return null;
+        }
+        List<?> result = em.createNativeQuery(sql).getResultList();
+        if (result.isEmpty() || result.get(0) == null) {
+            return null;
+        }
+        long estimate = ((Number) result.get(0)).longValue();
+        return estimate < 0 ? null : estimate; // PostgreSQL: analyze 전이면 -1
+    }
+
+    private String estimateCountSql() {
+        Dialect dialect = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect();
+        if (dialect instanceof H2Dialect) {
+            return "select row_count_estimate from information_schema.tables"
+                + " where table_schema = schema() and table_name = 'MEMBER'";
+        }
+        if (dialect instanceof MySQLDialect) {
+            return "select table_rows from information_schema.tables"
+                + " where table_schema = database() and table_name = 'member'";
+        }
+        if (dialect instanceof PostgreSQLDialect) {
+            return "select reltuples from pg_class where oid = to_regclass('member')";
+        }
+        return null;
+    }
+
+    public List<Member> findByIds(List<Long> ids) {
+        return em.createQuery("select m from Member m where m.id in :ids", Member.class)
+            .setParameter("ids", ids)
+            .getResultList();
+    }
+
     public List<Member> findByName(String name) {
-        log.info("findByName() - em = {}", em.getClass());
         return em.createQuery("select m from Member m where m.name = :name", Member.class)
             .setParameter("name", name)
             .getResultList();
     }
+
+    public boolean existsByName(String name) {
+        return !em.createQuery("select m.id from Member m where m.name = :name", Long.class)
+            .setParameter("name", name)
+            .setMaxResults(1)
+            .getResultList()
+            .isEmpty();
+    }
+
+    public long count() {
+        return em.createQuery("select count(m) from Member m", Long.class)
+            .getSingleResult();
+    }
+
+    // 회원명 전체 순회 (MemberNameFilter) -> 엔티티가 아닌 이름만 fetchSize 씩 읽는다. (null 인 이름은 제외)
+    public void forEachName(int fetchSize, Consumer<String> action) {
+        try (Stream<String> names = em.createQuery("select m.name from Member m where m.name is not null", String.class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .getResultStream()) {
+            names.forEach(action);
+        }
+    }
 }
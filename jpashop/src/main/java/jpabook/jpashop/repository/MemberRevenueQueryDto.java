@@ -0,0 +1,19 @@
+package jpabook.jpashop.repository;
+
+import lombok.Data;
+
+@Data
+public class MemberRevenueQueryDto {
+
+    private Long memberId;
+    private String name;
+    private long orderCount;
+    private long revenue;
+
+    public MemberRevenueQueryDto(Long memberId, String name, long orderCount, long revenue) {
+        this.memberId = memberId;
+        this.name = name;
+        this.orderCount = orderCount;
+        this.revenue = revenue;
+    }
+}
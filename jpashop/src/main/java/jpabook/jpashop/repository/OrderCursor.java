@@ -0,0 +1,58 @@
+package jpabook.jpashop.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.exception.InvalidCursorException;
+import lombok.Getter;
+import org.springframework.util.StringUtils;
+
+/**
+ * 커서(keyset) 페이징 위치
+ *
+ * 마지막으로 조회한 주문의 (orderDate, orderId)를 기억했다가 그 다음 row 부터 조회한다.
+ * 클라이언트에는 내부 구조를 숨긴 문자열(token)로 전달한다.
+ */
+@Getter
+public class OrderCursor {
+
+    private static final String DELIMITER = "|";
+
+    private final LocalDateTime orderDate;
+    private final Long orderId;
+
+    public OrderCursor(LocalDateTime orderDate, Long orderId) {
+        this.orderDate = orderDate;
+        this.orderId = orderId;
+    }
+
+    public static OrderCursor from(Order order) {
+        return new OrderCursor(order.getOrderDate(), order.getId());
+    }
+
+    /**
+     * token 이 없으면 첫 페이지 -> null
+     * 형식이 맞지 않으면 InvalidCursorException
+     */
+    public static OrderCursor decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = raw.indexOf(DELIMITER);
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, index)),
+                Long.valueOf(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException("잘못된 cursor 입니다. cursor=" + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = orderDate + DELIMITER + orderId;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,20 @@
+package jpabook.jpashop.repository;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+@Data
+public class OrderItemQueryDto {
+    @JsonIgnore
+    private Long orderId; // OrderQueryDto 와 매칭할 때만 사용
+    private String itemName; // 상품 명
+    private int orderPrice; // 주문 가격
+    private int count; // 주문 수량
+
+    public OrderItemQueryDto(Long orderId, String itemName, int orderPrice, int count) {
+        this.orderId = orderId;
+        this.itemName = itemName;
+        this.orderPrice = orderPrice;
+        this.count = count;
+    }
+}
@@ -0,0 +1,25 @@
+package jpabook.jpashop.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.Data;
+
+@Data
+public class OrderQueryDto {
+    private Long orderId;
+    private String name;
+    private LocalDateTime orderDate;
+    private OrderStatus orderStatus;
+    private Address address; // 배송지 정보
+    private List<OrderItemQueryDto> orderItems; // 컬렉션은 JPQL new 로 한 번에 담을 수 없다. -> 별도 쿼리로 채운다.
+
+    public OrderQueryDto(Long orderId, String name, LocalDateTime orderDate, OrderStatus orderStatus, Address address) {
+        this.orderId = orderId;
+        this.name = name;
+        this.orderDate = orderDate;
+        this.orderStatus = orderStatus;
+        this.address = address;
+    }
+}
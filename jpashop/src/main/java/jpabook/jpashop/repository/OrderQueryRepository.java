@@ -0,0 +1,82 @@
+package jpabook.jpashop.repository;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import jakarta.persistence.EntityManager;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 화면(API)에 종속적인 조회 전용 레포지토리
+ * 순수한 엔티티 레포지토리(OrderRepository)와 분리해서 관리한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderQueryRepository {
+
+    private final EntityManager em;
+
+    /**
+     * 컬렉션 조회 최적화 -> 쿼리 2번
+     *
+     * 1. ToOne 관계(member, delivery)는 join 해서 DTO로 조회 -> row가 증가하지 않으니 페이징 가능
+     * 2. 조회된 주문 id 로 ToMany 관계(orderItems, item)를 IN 쿼리 한 번에 DTO로 조회
+     * 3. 메모리(Map)에서 orderId 기준으로 매칭
+     *
+     * 엔티티를 조회하지 않으니 영속성 컨텍스트에 쌓이는 것도 없다.
+     */
+    public List<OrderQueryDto> findAllByDto(int offset, int limit) {
+        List<OrderQueryDto> result = findOrders(offset, limit);
+        if (result.isEmpty()) {
+            return result; // in () 은 문법 오류 -> 두 번째 쿼리 생략
+        }
+
+        Map<Long, List<OrderItemQueryDto>> orderItemMap = findOrderItemMap(toOrderIds(result));
+        result.forEach(o -> o.setOrderItems(orderItemMap.getOrDefault(o.getOrderId(), Collections.emptyList())));
+        return result;
+    }
+
+    private List<OrderQueryDto> findOrders(int offset, int limit) {
+        String jpql = "select new jpabook.jpashop.repository.OrderQueryDto("
+            + " o.id,"
+            + " m.name,"
+            + " o.orderDate,"
+            + " o.status,"
+            + " d.address)"
+            + " from Order o"
+            + " join o.member m"
+            + " join o.delivery d"
+            + " order by o.id";
+        return em.createQuery(jpql, OrderQueryDto.class)
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    private Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
+        String jpql = "select new jpabook.jpashop.repository.OrderItemQueryDto("
+            + " oi.order.id,"
+            + " i.name,"
+            + " oi.orderPrice,"
+            + " oi.count)"
+            + " from OrderItem oi"
+            + " join oi.item i"
+            + " where oi.order.id in :orderIds";
+        List<OrderItemQueryDto> orderItems = em.createQuery(jpql, OrderItemQueryDto.class)
+            .setParameter("orderIds", orderIds)
+            .getResultList();
+
+        return orderItems.stream()
+            .collect(groupingBy(OrderItemQueryDto::getOrderId));
+    }
+
+    private static List<Long> toOrderIds(List<OrderQueryDto> result) {
+        return result.stream()
+            .map(OrderQueryDto::getOrderId)
+            .collect(toList());
+    }
+}
@@ -1,5 +1,7 @@
 package jpabook.jpashop.repository;
 
+import static jpabook.jpashop.repository.ReadOnlyQueries.readOnly;
+
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -10,10 +12,15 @@ import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderSearch;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
 import org.aspectj.weaver.ast.Or;
 import org.hibernate.dialect.HANADialect;
 import org.springframework.stereotype.Repository;
@@ -134,13 +141,96 @@ public class OrderRepository {
     }
 
     public List<Order> findAllWithMemberDelivery(int offset, int limit) {
+        return memberDeliveryQuery(offset, limit).getResultList();
+    }
+
+    /**
+     * 목록 API 전용 -> 읽기 전용 엔티티로 조회 (ReadOnlyQueries)
+     * 조회한 주문을 수정하는 곳에서는 findAllWithMemberDelivery() 를 쓴다.
+     */
+    public List<Order> findAllWithMemberDeliveryReadOnly(int offset, int limit) {
+        return readOnly(memberDeliveryQuery(offset, limit)).getResultList();
+    }
+
+    private TypedQuery<Order> memberDeliveryQuery(int offset, int limit) {
         String jpql = "select o from Order o"
             + " join fetch o.member m"
             + " join fetch o.delivery d";
 
         return em.createQuery(jpql, Order.class)
             .setFirstResult(offset)
-            .setMaxResults(limit)
-            .getResultList();
+            .setMaxResults(limit);
+    }
+
+    /**
+     * 커서(keyset) 페이징
+     *
+     * offset 방식은 앞의 offset 개의 row를 읽고 버리기 때문에 뒤 페이지로 갈수록 느려진다.
+     * 마지막으로 조회한 (orderDate, id) 다음부터 읽으면 (order_date, order_id) 인덱스를 타고 바로 시작 위치를 찾는다.
+     * -> 페이지 깊이와 상관 없이 일정한 속도
+     *
+     * @param cursor null 이면 첫 페이지
+     */
+    public List<Order> findAllWithMemberDelivery(OrderCursor cursor, int limit) {
+        return memberDeliveryQuery(cursor, limit).getResultList();
+    }
+
+    /**
+     * 커서 페이징 목록 API 전용 -> 읽기 전용 엔티티로 조회 (ReadOnlyQueries)
+     */
+    public List<Order> findAllWithMemberDeliveryReadOnly(OrderCursor cursor, int limit) {
+        return readOnly(memberDeliveryQuery(cursor, limit)).getResultList();
+    }
+
+    private TypedQuery<Order> memberDeliveryQuery(OrderCursor cursor, int limit) {
+        String jpql = "select o from Order o"
+            + " join fetch o.member m"
+            + " join fetch o.delivery d";
+        if (cursor != null) {
+            jpql += " where o.orderDate < :orderDate"
+                + " or (o.orderDate = :orderDate and o.id < :orderId)";
+        }
+        jpql += " order by o.orderDate desc, o.id desc";
+
+        TypedQuery<Order> query = em.createQuery(jpql, Order.class)
+            .setMaxResults(limit);
+        if (cursor != null) {
+            query.setParameter("orderDate", cursor.getOrderDate())
+                .setParameter("orderId", cursor.getOrderId());
+        }
+        return query;
+    }
+
+    /**
+     * 전체 주문 스캔 (StatelessSession)
+     *
+     * 영속성 컨텍스트가 없다. -> 1차 캐시, 스냅샷을 만들지 않으므로 em.clear() 없이도 메모리가 일정하다.
+     * 현재 트랜잭션의 커넥션을 그대로 사용한다. -> 커넥션을 하나 더 잡지 않는다.
+     *
+     * 주의
+     * -> 지연 로딩이 안 된다. action에서 쓰는 연관관계는 모두 fetch join 해야 한다. (orderItems 접근 불가)
+     * -> 같은 트랜잭션에서 flush 하지 않은 변경 내용은 보이지 않는다.
+     * -> 1차 캐시가 없어서 같은 회원도 row 마다 새 객체로 만든다. -> 할당량은 늘지만 GC 대상이라 힙에 쌓이지 않는다.
+     */
+    public void scanWithMemberDelivery(int fetchSize, Consumer<Order> action) {
+        String jpql = "select o from Order o"
+            + " join fetch o.member m"
+            + " join fetch o.delivery d"
+            + " order by o.id";
+
+        Session session = em.unwrap(Session.class);
+        session.doWork(connection -> {
+            try (StatelessSession stateless = session.getSessionFactory()
+                .withStatelessOptions()
+                .connection(connection)
+                .openStatelessSession();
+                ScrollableResults<Order> results = stateless.createSelectionQuery(jpql, Order.class)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    action.accept(results.get());
+                }
+            }
+        });
     }
 }
@@ -0,0 +1,74 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.List;
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 매출 집계 조회
+ * orders.total_price 로 DB에서 group by -> 주문상품(컬렉션)을 로딩하지 않는다.
+ *
+ * 기간은 [from, to] (to 포함), 회원별, 일별 매출은 주문 상태(ORDER)만 집계한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderRevenueRepository {
+
+    private final EntityManager em;
+
+    public List<StatusRevenueQueryDto> findRevenueByStatus(LocalDate from, LocalDate to) {
+        String jpql = "select new jpabook.jpashop.repository.StatusRevenueQueryDto("
+            + " o.status,"
+            + " count(o),"
+            + " coalesce(sum(o.totalPrice), 0))"
+            + " from Order o"
+            + " where o.orderDate >= :from and o.orderDate < :to"
+            + " group by o.status"
+            + " order by o.status";
+        return em.createQuery(jpql, StatusRevenueQueryDto.class)
+            .setParameter("from", from.atStartOfDay())
+            .setParameter("to", to.plusDays(1).atStartOfDay())
+            .getResultList();
+    }
+
+    // 매출 상위 limit 명
+    public List<MemberRevenueQueryDto> findRevenueByMember(LocalDate from, LocalDate to, int limit) {
+        String jpql = "select new jpabook.jpashop.repository.MemberRevenueQueryDto("
+            + " m.id,"
+            + " m.name,"
+            + " count(o),"
+            + " coalesce(sum(o.totalPrice), 0))"
+            + " from Order o"
+            + " join o.member m"
+            + " where o.status = :status"
+            + " and o.orderDate >= :from and o.orderDate < :to"
+            + " group by m.id, m.name"
+            + " order by sum(o.totalPrice) desc, m.id";
+        return em.createQuery(jpql, MemberRevenueQueryDto.class)
+            .setParameter("status", OrderStatus.ORDER)
+            .setParameter("from", from.atStartOfDay())
+            .setParameter("to", to.plusDays(1).atStartOfDay())
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    public List<DailyRevenueQueryDto> findRevenueByDate(LocalDate from, LocalDate to) {
+        String jpql = "select new jpabook.jpashop.repository.DailyRevenueQueryDto("
+            + " cast(o.orderDate as LocalDate),"
+            + " count(o),"
+            + " coalesce(sum(o.totalPrice), 0))"
+            + " from Order o"
+            + " where o.status = :status"
+            + " and o.orderDate >= :from and o.orderDate < :to"
+            + " group by cast(o.orderDate as LocalDate)"
+            + " order by cast(o.orderDate as LocalDate)";
+        return em.createQuery(jpql, DailyRevenueQueryDto.class)
+            .setParameter("status", OrderStatus.ORDER)
+            .setParameter("from", from.atStartOfDay())
+            .setParameter("to", to.plusDays(1).atStartOfDay())
+            .getResultList();
+    }
+}
@@ -0,0 +1,136 @@
+package jpabook.jpashop.repository;
+
+import static jpabook.jpashop.repository.ReadOnlyQueries.readOnly;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderSearch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+/**
+ * 주문 검색
+ *
+ * 조건 조합(상태, 회원명, 시작일, 종료일)마다 JPQL을 미리 만들어 둔다. -> 최대 16개
+ * 시작할 때 named query로 등록 -> 요청마다 JPQL 파싱을 하지 않는다.
+ * 조건이 같으면 항상 같은 SQL -> prepared statement 재사용, 값은 전부 파라미터로 바인딩한다.
+ *
+ * 인덱스
+ * -> 상태 + 기간: orders(status, order_date)
+ * -> 회원명: member(name), 앞부분 일치(like '이름%')만 지원한다. '%이름%'은 인덱스를 못 탄다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderSearchRepository {
+
+    private static final int STATUS = 1;
+    private static final int NAME = 1 << 1;
+    private static final int DATE_FROM = 1 << 2;
+    private static final int DATE_TO = 1 << 3;
+
+    private static final int CONDITION_COMBINATIONS = 1 << 4;
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+
+    @PostConstruct
+    void registerQueries() {
+        EntityManager registrar = emf.createEntityManager();
+        try {
+            for (int conditions = 0; conditions < CONDITION_COMBINATIONS; conditions++) {
+                emf.addNamedQuery(queryName(conditions), registrar.createQuery(jpql(conditions), Order.class));
+            }
+        } finally {
+            registrar.close();
+        }
+    }
+
+    /**
+     * 최신 주문부터 limit 건
+     * 회원은 fetch join, 주문상품은 default_batch_fetch_size로 가져온다.
+     */
+    public List<Order> search(OrderSearch orderSearch, int limit) {
+        return searchQuery(orderSearch, limit).getResultList();
+    }
+
+    /**
+     * 목록 화면 전용 -> 읽기 전용 엔티티로 조회 (ReadOnlyQueries)
+     * 조회한 주문을 수정하는 곳에서는 search() 를 쓴다.
+     */
+    public List<Order> searchReadOnly(OrderSearch orderSearch, int limit) {
+        return readOnly(searchQuery(orderSearch, limit)).getResultList();
+    }
+
+    private TypedQuery<Order> searchQuery(OrderSearch orderSearch, int limit) {
+        int conditions = conditionsOf(orderSearch);
+        TypedQuery<Order> query = em.createNamedQuery(queryName(conditions), Order.class)
+            .setMaxResults(limit);
+
+        if ((conditions & STATUS) != 0) {
+            query.setParameter("status", orderSearch.getOrderStatus());
+        }
+        if ((conditions & NAME) != 0) {
+            query.setParameter("name", escapeLike(orderSearch.getMemberName().trim()) + "%");
+        }
+        if ((conditions & DATE_FROM) != 0) {
+            query.setParameter("from", orderSearch.getOrderDateFrom().atStartOfDay());
+        }
+        if ((conditions & DATE_TO) != 0) {
+            query.setParameter("to", orderSearch.getOrderDateTo().plusDays(1).atStartOfDay());
+        }
+        return query;
+    }
+
+    private static String queryName(int conditions) {
+        return "Order.search." + conditions;
+    }
+
+    private static int conditionsOf(OrderSearch orderSearch) {
+        int conditions = 0;
+        if (orderSearch.getOrderStatus() != null) {
+            conditions |= STATUS;
+        }
+        if (StringUtils.hasText(orderSearch.getMemberName())) {
+            conditions |= NAME;
+        }
+        if (orderSearch.getOrderDateFrom() != null) {
+            conditions |= DATE_FROM;
+        }
+        if (orderSearch.getOrderDateTo() != null) {
+            conditions |= DATE_TO;
+        }
+        return conditions;
+    }
+
+    private static String jpql(int conditions) {
+        StringBuilder where = new StringBuilder();
+        if ((conditions & STATUS) != 0) {
+            where.append(" and o.status = :status");
+        }
+        if ((conditions & NAME) != 0) {
+            where.append(" and m.name like :name escape '\\'");
+        }
+        if ((conditions & DATE_FROM) != 0) {
+            where.append(" and o.orderDate >= :from");
+        }
+        if ((conditions & DATE_TO) != 0) {
+            where.append(" and o.orderDate < :to");
+        }
+        return "select o from Order o"
+            + " join fetch o.member m"
+            + (where.isEmpty() ? "" : " where" + where.substring(" and".length()))
+            + " order by o.orderDate desc, o.id desc";
+    }
+
+    // 사용자가 입력한 %, _ 는 문자 그대로 찾는다.
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,48 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.TypedQuery;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 조회 전용 쿼리 힌트
+ *
+ * 1. read-only -> 조회한 엔티티의 스냅샷(변경 감지용 원본 복사본)을 만들지 않는다. 엔티티를 수정해도 update 되지 않는다.
+ * 2. FlushMode.MANUAL -> 쿼리 실행 전에 영속성 컨텍스트를 flush 하지 않는다. (변경 감지를 위한 전체 엔티티 비교도 하지 않는다)
+ *    쓰기 트랜잭션 안에서는 지정하지 않는다. -> 같은 트랜잭션에서 persist/수정한 내용이 결과에 보여야 한다.
+ * 3. fetch size -> JDBC 드라이버가 DB에서 한 번에 가져오는 row 수
+ *
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 세션 단위로 같은 설정을 해주지만
+ * OSIV로 트랜잭션 밖(컨트롤러)에서 호출되거나 쓰기 트랜잭션 안에서 호출되는 목록 조회는 쿼리 단위로 지정해야 한다.
+ *
+ * 주의
+ * -> 같은 영속성 컨텍스트에서 다시 em.find() 해도 읽기 전용 엔티티가 그대로 반환된다. (OSIV 면 요청이 끝날 때까지)
+ *    이후에 수정해도 반영되지 않는다. -> 여러 곳에서 쓰는 조회 메서드에는 붙이지 않는다.
+ *    목록 화면/API 전용 메서드(*ReadOnly)에만 쓴다.
+ */
+public final class ReadOnlyQueries {
+
+    public static final int DEFAULT_FETCH_SIZE = 100;
+
+    private ReadOnlyQueries() {
+    }
+
+    public static <T> TypedQuery<T> readOnly(TypedQuery<T> query) {
+        return readOnly(query, DEFAULT_FETCH_SIZE);
+    }
+
+    public static <T> TypedQuery<T> readOnly(TypedQuery<T> query, int fetchSize) {
+        query.setHint(HibernateHints.HINT_READ_ONLY, true)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        if (!inWriteTransaction()) {
+            query.setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+        }
+        return query;
+    }
+
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
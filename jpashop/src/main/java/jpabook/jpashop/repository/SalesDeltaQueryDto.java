@@ -0,0 +1,25 @@
+package jpabook.jpashop.repository;
+
+import java.time.LocalDate;
+import lombok.Data;
+
+/**
+ * 매출 집계에 더할(뺄) 값 -> 주문일 + 대상(상품, 회원) 단위
+ */
+@Data
+public class SalesDeltaQueryDto {
+
+    private LocalDate salesDate;
+    private Long targetId;
+    private long orderCount;
+    private long quantity;
+    private long revenue;
+
+    public SalesDeltaQueryDto(LocalDate salesDate, Long targetId, long orderCount, long quantity, long revenue) {
+        this.salesDate = salesDate;
+        this.targetId = targetId;
+        this.orderCount = orderCount;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+}
@@ -0,0 +1,24 @@
+package jpabook.jpashop.repository;
+
+import lombok.Data;
+
+/**
+ * 기간 매출 순위 (상품별, 회원별)
+ */
+@Data
+public class SalesRankingQueryDto {
+
+    private Long id;
+    private String name;
+    private long orderCount;
+    private long quantity;
+    private long revenue;
+
+    public SalesRankingQueryDto(Long id, String name, long orderCount, long quantity, long revenue) {
+        this.id = id;
+        this.name = name;
+        this.orderCount = orderCount;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+}
@@ -0,0 +1,151 @@
+package jpabook.jpashop.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.sales.SalesDimension;
+import jpabook.jpashop.domain.sales.SalesRollup;
+import jpabook.jpashop.domain.sales.SalesRollupLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class SalesRollupRepository {
+
+    private final EntityManager em;
+
+    public void save(SalesRollup salesRollup) {
+        em.persist(salesRollup);
+    }
+
+    public void saveLockIfAbsent() {
+        if (em.find(SalesRollupLock.class, SalesRollupLock.ID) == null) {
+            em.persist(SalesRollupLock.createSalesRollupLock());
+        }
+    }
+
+    /**
+     * 잠금 row 조회 + 행 잠금 -> 서버가 여러 대여도 집계는 한 번에 하나만 돈다.
+     */
+    public SalesRollupLock findLockForUpdate() {
+        return em.find(SalesRollupLock.class, SalesRollupLock.ID, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    /**
+     * 집계에 반영된 상태가 rolledUpStatus 이고 현재 상태가 status 인 주문 id
+     * 커밋된 주문만 보인다. -> id 순서와 관계없이 늦게 커밋된 주문도 다음 조회에 나온다.
+     */
+    public List<Long> findOrderIdsToRollup(OrderStatus rolledUpStatus, OrderStatus status, int limit) {
+        String jpql = "select o.id from Order o"
+            + " where " + (rolledUpStatus == null ? "o.rolledUpStatus is null" : "o.rolledUpStatus = :rolledUpStatus")
+            + " and o.status = :status"
+            + " order by o.id";
+        TypedQuery<Long> query = em.createQuery(jpql, Long.class)
+            .setParameter("status", status)
+            .setMaxResults(limit);
+        if (rolledUpStatus != null) {
+            query.setParameter("rolledUpStatus", rolledUpStatus);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * 주문의 매출 (상태와 관계없이 주문 전체)
+     */
+    public List<SalesDeltaQueryDto> aggregateOrders(SalesDimension dimension, Collection<Long> orderIds) {
+        return em.createQuery(deltaJpql(dimension), SalesDeltaQueryDto.class)
+            .setParameter("orderIds", orderIds)
+            .getResultList();
+    }
+
+    /**
+     * 집계한 주문에 반영한 상태를 남긴다.
+     * 조회 이후 상태가 바뀌었어도(취소) 집계한 상태를 남긴다. -> 다음 주기에 취소분으로 다시 나온다.
+     */
+    public void markRolledUp(Collection<Long> orderIds, OrderStatus rolledUpStatus) {
+        em.createQuery("update Order o set o.rolledUpStatus = :rolledUpStatus where o.id in :orderIds")
+            .setParameter("rolledUpStatus", rolledUpStatus)
+            .setParameter("orderIds", orderIds)
+            .executeUpdate();
+    }
+
+    private static String deltaJpql(SalesDimension dimension) {
+        String targetId = switch (dimension) {
+            case DAY -> "0L";
+            case ITEM -> "oi.item.id";
+            case MEMBER -> "o.member.id";
+        };
+        return "select new jpabook.jpashop.repository.SalesDeltaQueryDto("
+            + " cast(o.orderDate as LocalDate),"
+            + " " + targetId + ","
+            + " count(distinct o.id),"
+            + " sum(oi.count),"
+            + " sum(oi.orderPrice * oi.count))"
+            + " from OrderItem oi"
+            + " join oi.order o"
+            + " where o.id in :orderIds"
+            + " group by cast(o.orderDate as LocalDate), " + targetId;
+    }
+
+    public List<SalesRollup> findAll(SalesDimension dimension, Collection<LocalDate> salesDates) {
+        return em.createQuery("select r from SalesRollup r"
+                + " where r.dimension = :dimension and r.salesDate in :salesDates", SalesRollup.class)
+            .setParameter("dimension", dimension)
+            .setParameter("salesDates", salesDates)
+            .getResultList();
+    }
+
+    // == 리포트 == //
+
+    public List<DailySalesQueryDto> findDailySales(LocalDate from, LocalDate to) {
+        String jpql = "select new jpabook.jpashop.repository.DailySalesQueryDto("
+            + " r.salesDate,"
+            + " r.orderCount,"
+            + " r.quantity,"
+            + " r.revenue)"
+            + " from SalesRollup r"
+            + " where r.dimension = :dimension"
+            + " and r.salesDate between :from and :to"
+            + " order by r.salesDate";
+        return em.createQuery(jpql, DailySalesQueryDto.class)
+            .setParameter("dimension", SalesDimension.DAY)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .getResultList();
+    }
+
+    public List<SalesRankingQueryDto> findItemRanking(LocalDate from, LocalDate to, int limit) {
+        return findRanking(SalesDimension.ITEM, "Item", from, to, limit);
+    }
+
+    public List<SalesRankingQueryDto> findMemberRanking(LocalDate from, LocalDate to, int limit) {
+        return findRanking(SalesDimension.MEMBER, "Member", from, to, limit);
+    }
+
+    private List<SalesRankingQueryDto> findRanking(SalesDimension dimension, String entity,
+        LocalDate from, LocalDate to, int limit) {
+        String jpql = "select new jpabook.jpashop.repository.SalesRankingQueryDto("
+            + " r.targetId,"
+            + " t.name,"
+            + " sum(r.orderCount),"
+            + " sum(r.quantity),"
+            + " sum(r.revenue))"
+            + " from SalesRollup r"
+            + " left join " + entity + " t on t.id = r.targetId"
+            + " where r.dimension = :dimension"
+            + " and r.salesDate between :from and :to"
+            + " group by r.targetId, t.name"
+            + " order by sum(r.revenue) desc, r.targetId";
+        TypedQuery<SalesRankingQueryDto> query = em.createQuery(jpql, SalesRankingQueryDto.class)
+            .setParameter("dimension", dimension)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .setMaxResults(limit);
+        return query.getResultList();
+    }
+}
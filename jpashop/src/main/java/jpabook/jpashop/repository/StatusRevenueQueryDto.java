@@ -0,0 +1,18 @@
+package jpabook.jpashop.repository;
+
+import jpabook.jpashop.domain.OrderStatus;
+import lombok.Data;
+
+@Data
+public class StatusRevenueQueryDto {
+
+    private OrderStatus status;
+    private long orderCount;
+    private long revenue;
+
+    public StatusRevenueQueryDto(OrderStatus status, long orderCount, long revenue) {
+        this.status = status;
+        this.orderCount = orderCount;
+        this.revenue = revenue;
+    }
+}
@@ -0,0 +1,192 @@
+package jpabook.jpashop.seed;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+/**
+ * 대량 초기 데이터 적재 (seed 프로파일) -> 부하 테스트용 운영 규모 데이터
+ *
+ * InitDb(em.persist)는 영속성 컨텍스트에 엔티티를 쌓아두고 커밋할 때 변경 감지까지 한다. -> 수백만 건은 불가능
+ * StatelessSession.insert 는 영속성 컨텍스트 없이 바로 insert 하고 JDBC batch로 모아서 보낸다.
+ * 전체 범위를 batchSize 단위로 나눠서 parallelism 개의 스레드가 각자 트랜잭션(커넥션)으로 넣는다.
+ *
+ * 1. 회원, 상품 -> 회원은 id, 상품은 insert 한 객체(id, 가격, version)를 배열에 모아둔다.
+ * 2. 주문 -> 배송, 주문, 주문상품 순서로 테이블별로 모아서 insert (중간에 테이블이 바뀌면 batch가 끊긴다)
+ *    연관관계는 모아둔 값으로 연결한다. -> 회원, 상품을 다시 조회하지 않는다.
+ *    회원은 id만 채운 객체를 새로 만든다. (Order.setMember 가 회원의 orders 에 주문을 쌓는다)
+ *
+ * 데이터는 randomSeed 로 만든다. -> 같은 설정이면 항상 같은 데이터
+ * 재고는 차감하지 않는다. (createReservedOrderItem)
+ *
+ * 실행: ./gradlew bootRun --args='--spring.profiles.active=seed --jpashop.seed.orders=1000000 --jpashop.seed.exit=true'
+ */
+@Slf4j
+@Component
+@Profile("seed")
+@EnableConfigurationProperties(SeedProperties.class)
+@RequiredArgsConstructor
+public class BulkDataLoader {
+
+    private final EntityManagerFactory emf;
+    private final SeedProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE) // 적재한 데이터를 읽는 리스너(MemberNameFilter)보다 먼저
+    public void load(ApplicationReadyEvent event) {
+        long start = System.nanoTime();
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+
+        long[] memberIds = new long[properties.getMembers()];
+        Book[] items = new Book[properties.getItems()];
+        try (ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism())) {
+            insertAll(executor, sessionFactory, memberIds.length,
+                (stateless, from, to) -> insertMembers(stateless, memberIds, from, to));
+            insertAll(executor, sessionFactory, items.length,
+                (stateless, from, to) -> insertItems(stateless, items, from, to));
+            insertAll(executor, sessionFactory, properties.getOrders(),
+                (stateless, from, to) -> insertOrders(stateless, memberIds, items, from, to));
+        }
+
+        log.info("seed loaded. members={}, items={}, orders={}, elapsed={}ms",
+            properties.getMembers(), properties.getItems(), properties.getOrders(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        if (properties.isExit()) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    private void insertMembers(StatelessSession stateless, long[] memberIds, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Member member = new Member();
+            member.setName("member" + i);
+            member.setAddress(address(i));
+            stateless.insert(member);
+            memberIds[i] = member.getId();
+        }
+    }
+
+    private void insertItems(StatelessSession stateless, Book[] items, int from, int to) {
+        SplittableRandom random = new SplittableRandom(properties.getRandomSeed() + from);
+        for (int i = from; i < to; i++) {
+            Book book = new Book();
+            book.setName("book" + i);
+            book.setPrice(1000 * random.nextInt(1, 51));
+            book.setStockQuantity(1_000_000);
+            stateless.insert(book);
+            items[i] = book;
+        }
+    }
+
+    private void insertOrders(StatelessSession stateless, long[] memberIds, Book[] items, int from, int to) {
+        SplittableRandom random = new SplittableRandom(properties.getRandomSeed() + from);
+        LocalDateTime now = LocalDateTime.now();
+        long periodSeconds = properties.getPeriod().toSeconds();
+
+        List<Order> orders = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int memberIndex = random.nextInt(memberIds.length);
+            Member member = new Member();
+            member.setId(memberIds[memberIndex]);
+
+            Delivery delivery = new Delivery();
+            delivery.setAddress(address(memberIndex));
+
+            OrderItem[] orderItems = new OrderItem[random.nextInt(1, properties.getMaxItemsPerOrder() + 1)];
+            for (int j = 0; j < orderItems.length; j++) {
+                Book book = items[random.nextInt(items.length)];
+                orderItems[j] = OrderItem.createReservedOrderItem(book, book.getPrice(), random.nextInt(1, 4));
+            }
+
+            Order order = Order.createOrder(member, delivery, orderItems);
+            order.setOrderDate(now.minusSeconds(random.nextLong(periodSeconds)));
+            orders.add(order);
+        }
+
+        for (Order order : orders) {
+            stateless.insert(order.getDelivery());
+        }
+        for (Order order : orders) {
+            stateless.insert(order);
+        }
+        for (Order order : orders) {
+            for (OrderItem orderItem : order.getOrderItems()) {
+                stateless.insert(orderItem);
+            }
+        }
+    }
+
+    private Address address(int index) {
+        return new Address("city" + index % 100, "street" + index, String.format("%05d", index % 100_000));
+    }
+
+    /**
+     * [0, total) 을 batchSize 단위로 나눠서 실행하고 모두 끝날 때까지 기다린다. 하나라도 실패하면 예외
+     */
+    private void insertAll(ExecutorService executor, SessionFactory sessionFactory, int total, ChunkInsert insert) {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < total; from += properties.getBatchSize()) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(from + properties.getBatchSize(), total);
+            futures.add(executor.submit(() -> inTransaction(sessionFactory, chunkFrom, chunkTo, insert)));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("seed interrupted", e);
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("seed failed", e.getCause());
+            }
+        }
+    }
+
+    private void inTransaction(SessionFactory sessionFactory, int from, int to, ChunkInsert insert) {
+        try (StatelessSession stateless = sessionFactory.openStatelessSession()) {
+            stateless.setJdbcBatchSize(properties.getBatchSize());
+            Transaction tx = stateless.beginTransaction();
+            try {
+                insert.insert(stateless, from, to);
+                tx.commit();
+            } catch (RuntimeException e) {
+                tx.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkInsert {
+
+        void insert(StatelessSession stateless, int from, int to);
+    }
+}
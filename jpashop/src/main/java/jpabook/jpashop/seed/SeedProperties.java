@@ -0,0 +1,27 @@
+package jpabook.jpashop.seed;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 대량 초기 데이터 설정 (jpashop.seed) -> seed 프로파일에서만 사용
+ */
+@Getter
+@Setter
+@ConfigurationProperties("jpashop.seed")
+public class SeedProperties {
+
+    private int members = 100_000;
+    private int items = 10_000;
+    private int orders = 1_000_000;
+    private int maxItemsPerOrder = 3; // 주문당 주문상품 1 ~ maxItemsPerOrder 개
+    private Duration period = Duration.ofDays(365); // 주문 시간을 현재부터 이 기간 전까지 고르게 나눈다.
+
+    private int parallelism = 4; // 동시에 insert 하는 스레드 수 = 사용하는 커넥션 수 (hikari maximum-pool-size 이하)
+    private int batchSize = 1000; // 트랜잭션(JDBC batch) 하나에 넣는 row 수
+    private long randomSeed = 42; // 같은 값이면 항상 같은 데이터
+
+    private boolean exit = false; // true: 적재가 끝나면 애플리케이션 종료 (CLI)
+}
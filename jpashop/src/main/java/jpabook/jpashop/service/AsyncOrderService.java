@@ -0,0 +1,187 @@
+package jpabook.jpashop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import jpabook.jpashop.exception.OrderQueueClosedException;
+import jpabook.jpashop.exception.OrderQueueFullException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 비동기 주문
+ *
+ * 요청 스레드는 회원, 상품이 있는지만 확인(IN 쿼리)하고 주문을 큐에 넣은 뒤 접수증(ticket)만 돌려준다.
+ * -> 없는 회원, 상품은 접수하지 않는다. (워커의 묶음 트랜잭션이 잘못된 주문 하나 때문에 롤백되지 않도록)
+ * -> DB 커넥션은 확인하는 동안만 잡는다.
+ * 워커 스레드(workers 개)가 큐에서 최대 batch-size 개씩 꺼내 트랜잭션 하나로 처리한다. (OrderService.orders)
+ * -> 주문이 몰려도 DB 커넥션은 워커 수만큼만 쓴다.
+ *
+ * 큐가 가득 차면 OrderQueueFullException -> 429 (잠시 후 재시도), 종료 중이면 OrderQueueClosedException -> 503
+ * 묶음 처리가 실패하면(재고 부족 등) 한 건씩 다시 처리해서 실패한 주문만 FAILED 로 남긴다.
+ *
+ * 주의: 큐는 메모리에 있다. 서버가 비정상 종료되면 처리되지 않은 주문은 사라진다. (정상 종료 시에는 남은 주문을 처리하고 내려간다)
+ */
+@Slf4j
+@Service
+public class AsyncOrderService {
+
+    private final OrderService orderService;
+    private final BlockingQueue<PendingOrder> queue;
+    private final Cache<String, OrderTicket> tickets;
+    private final int workers;
+    private final int batchSize;
+
+    private ExecutorService executor;
+    private volatile boolean running = true;
+    // submit(읽기) 과 close(쓰기) 사이 잠금 -> close 이후에는 큐에 들어가는 주문이 없다.
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    public AsyncOrderService(OrderService orderService, MeterRegistry meterRegistry,
+        @Value("${jpashop.order.async.queue-capacity:1000}") int queueCapacity,
+        @Value("${jpashop.order.async.workers:2}") int workers,
+        @Value("${jpashop.order.async.batch-size:50}") int batchSize,
+        @Value("${jpashop.order.async.ticket-ttl:10m}") Duration ticketTtl) {
+        this.orderService = orderService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.tickets = Caffeine.newBuilder().expireAfterWrite(ticketTtl).build();
+        this.workers = workers;
+        this.batchSize = batchSize;
+        Gauge.builder("order.async.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, r -> new Thread(r, "order-writer-" + sequence.incrementAndGet()));
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+    }
+
+    /**
+     * 주문 접수 -> 회원, 상품이 있는지 확인하고 큐에 넣기만 하고 바로 반환
+     */
+    public OrderTicket submit(OrderCommand command) {
+        if (!running) {
+            throw new OrderQueueClosedException("order queue is closed");
+        }
+        orderService.checkExists(command); // 잠금 밖에서 조회 -> close 가 조회를 기다리지 않는다.
+
+        closeLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new OrderQueueClosedException("order queue is closed");
+            }
+            OrderTicket ticket = new OrderTicket();
+            tickets.put(ticket.getId(), ticket);
+            if (!queue.offer(new PendingOrder(command, ticket))) {
+                tickets.invalidate(ticket.getId());
+                throw new OrderQueueFullException("order queue is full");
+            }
+            return ticket;
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    public OrderTicket findTicket(String ticketId) {
+        return tickets.getIfPresent(ticketId);
+    }
+
+    private void work() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<PendingOrder> batch) {
+        try {
+            List<Long> orderIds = orderService.orders(batch.stream().map(PendingOrder::getCommand).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).getTicket().complete(orderIds.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            log.debug("order batch failed, retry one by one. size={}", batch.size(), e);
+            for (PendingOrder pending : batch) {
+                try {
+                    pending.getTicket().complete(orderService.orders(List.of(pending.getCommand())).get(0));
+                } catch (RuntimeException oneFailed) {
+                    fail(pending, oneFailed);
+                }
+            }
+        }
+    }
+
+    private void fail(PendingOrder pending, RuntimeException e) {
+        log.info("async order failed. ticket={}, reason={}", pending.getTicket().getId(), e.getMessage());
+        pending.getTicket().fail(e.getMessage());
+    }
+
+    /**
+     * 새 주문은 받지 않고, 큐에 남은 주문을 처리한 뒤 종료
+     * 시간 안에 처리하지 못한 주문은 FAILED 로 남긴다. -> PENDING 으로 남는 접수증이 없다.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        closeLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("async order workers did not finish. remaining={}", queue.size());
+            executor.shutdownNow();
+        }
+        List<PendingOrder> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (PendingOrder pending : remaining) {
+            pending.getTicket().fail("order service is shutting down");
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class PendingOrder {
+
+        private final OrderCommand command;
+        private final OrderTicket ticket;
+    }
+}
@@ -0,0 +1,91 @@
+package jpabook.jpashop.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 Bloom filter (여러 스레드에서 동시에 put/mightContain 가능)
+ *
+ * 비트 배열 + 해시 k개 -> 넣은 값은 항상 true, 넣지 않은 값은 fpp 확률로 true (false positive)
+ * 값을 지울 수 없다. -> 지워야 하면 새로 만든다.
+ *
+ * 크기: 비트 수 m = -n * ln(fpp) / (ln2)^2, 해시 수 k = m / n * ln2  (n = 예상 원소 수)
+ * -> 100만 개, 1% 기준 약 1.2MB, k = 7
+ * 해시: 64bit 해시 두 개(h1, h2)로 k개를 만든다. (h1 + i * h2)
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLong bitCount = new AtomicLong(); // 1로 바뀐 비트 수
+
+    private BloomFilter(long bitSize, int hashCount) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitSize + 63) >>> 6));
+        this.bitSize = (long) words.length() << 6;
+        this.hashCount = hashCount;
+    }
+
+    static BloomFilter create(long expectedInsertions, double fpp) {
+        long n = Math.max(1, expectedInsertions);
+        long bitSize = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int hashCount = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+        return new BloomFilter(bitSize, hashCount);
+    }
+
+    void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < hashCount; i++) {
+            setBit(Math.floorMod(h1 + i * h2, bitSize));
+        }
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitSize);
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 현재 채워진 비트 비율로 계산한 false positive 확률
+     */
+    double expectedFpp() {
+        return Math.pow((double) bitCount.get() / bitSize, hashCount);
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long old;
+        do {
+            old = words.get(word);
+            if ((old & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, old, old | mask));
+        bitCount.incrementAndGet();
+    }
+
+    // FNV-1a 64bit + 섞기 -> 비슷한 문자열(member1, member2)도 고르게 퍼진다.
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class ItemService {
 
     private final ItemRepository itemRepository;
+    private final StockReservation stockReservation;
 
     @Transactional
     public void saveItem(Item item) {
@@ -26,6 +27,7 @@ public class ItemService {
         findItem.setName(name);
         findItem.setPrice(price);
         findItem.setStockQuantity(stockQuantity);
+        stockReservation.evict(itemId); // 재고를 직접 수정했으니 메모리 예약 슬롯은 다시 읽어온다.
     }
 
     public List<Item> findItems() {
@@ -0,0 +1,166 @@
+package jpabook.jpashop.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import jpabook.jpashop.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 회원명 Bloom filter -> 없는 이름은 DB를 조회하지 않고 바로 판단한다.
+ *
+ * filter가 없다고 하면 반드시 없다. 있다고 하면 없을 수도 있으므로(false positive) 이때만 DB를 조회한다.
+ * 기동이 끝나면 전체 회원명으로 만들고 주기적으로 새로 만들어서 교체한다.
+ * -> 이름 변경으로 남은 옛 이름 정리, 회원 수가 늘어나면 크기도 늘린다. (회원 수 * 2 와 expected-insertions 중 큰 값)
+ * 가입, 이름 변경은 커밋된 후에 filter에 추가한다. (이름이 null 이면 넣지 않는다)
+ * 재생성은 primary 에서 읽는다. -> replica 지연으로 빠진 이름이 있으면 있는 이름을 없다고 한다. (false negative)
+ *
+ * 지표
+ * -> member.name.filter.checks (result=negative: DB 조회 생략, positive: 실제로 있음, false_positive: 조회했는데 없음)
+ * -> member.name.filter.false.positive.ratio: 없는 이름 중 filter가 있다고 한 비율 (실측)
+ * -> member.name.filter.expected.fpp: 채워진 비트 비율로 계산한 false positive 확률
+ *
+ * 주의
+ * -> 처음 만들어지기 전에는 항상 DB를 조회한다.
+ * -> MemberService를 거치지 않고 넣은 회원(InitDb, BulkDataLoader, 직접 insert)은 다음 재생성 때 반영된다.
+ *    그 전까지는 없다고 할 수 있지만 가입은 unique 인덱스가 최종 판단하므로 중복 가입은 생기지 않는다.
+ */
+@Slf4j
+@Component
+public class MemberNameFilter {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate primaryTx; // readOnly 가 아님 -> primary
+    private final long expectedInsertions;
+    private final double fpp;
+
+    private volatile BloomFilter filter; // null -> 아직 만들지 않음
+    private volatile BloomFilter building; // 재생성 중 -> 그 사이 커밋된 이름도 넣는다.
+
+    private final Counter negative;
+    private final Counter positive;
+    private final Counter falsePositive;
+
+    public MemberNameFilter(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Value("${jpashop.member.name-filter.expected-insertions:1000000}") long expectedInsertions,
+        @Value("${jpashop.member.name-filter.fpp:0.01}") double fpp) {
+        this.memberRepository = memberRepository;
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+
+        this.negative = checks(meterRegistry, "negative");
+        this.positive = checks(meterRegistry, "positive");
+        this.falsePositive = checks(meterRegistry, "false_positive");
+        Gauge.builder("member.name.filter.false.positive.ratio", this, MemberNameFilter::falsePositiveRatio)
+            .register(meterRegistry);
+        Gauge.builder("member.name.filter.expected.fpp", this, f -> f.filter == null ? 1.0 : f.filter.expectedFpp())
+            .register(meterRegistry);
+    }
+
+    /**
+     * 이름이 있으면 true
+     */
+    public boolean exists(String name) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(name)) {
+            negative.increment();
+            return false;
+        }
+
+        boolean exists = memberRepository.existsByName(name);
+        if (current != null) {
+            (exists ? positive : falsePositive).increment();
+        }
+        return exists;
+    }
+
+    /**
+     * 트랜잭션 안에서 호출하면 커밋된 후에 추가한다. (롤백되면 추가하지 않는다)
+     */
+    public void add(String name) {
+        if (name == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(name);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(name);
+            }
+        });
+    }
+
+    /**
+     * 데이터 적재(InitDb, BulkDataLoader)가 끝난 뒤에 만든다.
+     * 실패해도 기동은 계속한다. -> 다음 재생성 전까지 항상 DB 조회
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void init() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("member name filter build failed. fall back to db lookup", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jpashop.member.name-filter.rebuild-interval:3600000}",
+        initialDelayString = "${jpashop.member.name-filter.rebuild-interval:3600000}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        try {
+            BloomFilter next = primaryTx.execute(status -> {
+                long members = memberRepository.count();
+                BloomFilter created = BloomFilter.create(Math.max(expectedInsertions, members * 2), fpp);
+                building = created; // 이 시점 이후에 커밋된 이름은 add()로 들어온다.
+                memberRepository.forEachName(1000, created::put);
+                return created;
+            });
+            filter = next;
+            log.info("member name filter rebuilt. expectedFpp={}, elapsed={}ms", next.expectedFpp(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            building = null;
+        }
+    }
+
+    // building -> filter 순서로 읽는다. 재생성이 끝나면서(filter 교체 후 building = null) 빠지는 이름이 없다.
+    private void put(String name) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(name);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(name);
+        }
+    }
+
+    private double falsePositiveRatio() {
+        double absent = negative.count() + falsePositive.count();
+        return absent == 0 ? 0 : falsePositive.count() / absent;
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("member.name.filter.checks")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package jpabook.jpashop.service;
+
+import java.util.List;
+import jpabook.jpashop.repository.MemberQueryDto;
+import lombok.Getter;
+
+/**
+ * 회원 목록 한 페이지
+ */
+@Getter
+public class MemberPage {
+
+    private final List<MemberQueryDto> members;
+    private final Long nextCursor; // 다음 페이지 조회 시 cursor 로 전달, 마지막 페이지면 null
+    private final Long totalEstimate; // 요청한 경우에만, 정확한 값이 아닌 추정치 (지원하지 않는 DB 면 null)
+
+    MemberPage(List<MemberQueryDto> members, Long nextCursor, Long totalEstimate) {
+        this.members = members;
+        this.nextCursor = nextCursor;
+        this.totalEstimate = totalEstimate;
+    }
+}
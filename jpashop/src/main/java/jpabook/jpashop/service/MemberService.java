@@ -1,9 +1,19 @@
 package jpabook.jpashop.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.exception.DuplicatedMemberException;
+import jpabook.jpashop.exception.MemberNotFoundException;
+import jpabook.jpashop.repository.MemberQueryDto;
 import jpabook.jpashop.repository.MemberRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,46 +22,163 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor // final 이 있는 필드만을 가지고 생성자를 만들어 준다.
 public class MemberService {
 
+    public static final int MAX_PAGE_SIZE = 1000; // 회원 목록 한 페이지 최대 크기
+
     private final MemberRepository memberRepository;
+    private final MemberNameFilter memberNameFilter;
 
     /**
      * 회원 가입
      *
-     * 중복 회원 처리
+     * 중복 회원 처리 -> member.name unique 인덱스
+     * 이름으로 먼저 조회하고 insert 하면 동시에 같은 이름으로 가입할 때 둘 다 통과한다.
+     * 조회 없이 바로 insert 하고 DB의 unique 제약 위반을 중복으로 판단한다. -> 회원 수와 상관 없이 인덱스 탐색 한 번
      */
     public Long join(Member member) {
-        validateDuplicatedMember(member); // 중복 회원 검증
         memberRepository.save(member);
+        flushOrThrowDuplicated();
+        memberNameFilter.add(member.getName());
         return member.getId();
     }
 
     /**
-     * 중복 회원 검증이 완벽하게 동작할까???
-     * -> 만약 두 명의 사용자가 동일한 이름으로 동시에 회원가입을 요청한다면??? 동일한 이름을 가진 두 명의 사용자가 회원가입이 된다.
-     * 해결책 -> DB에서 최후 방어선 구축 -> Member 테이블의 name column에 unique 제약 조건을 추가한다.
+     * 일괄 가입 -> 트랜잭션 하나, insert는 JDBC batch(hibernate.jdbc.batch_size)로 모아서 보낸다.
+     * 한 명이라도 중복이면 전체 롤백
+     */
+    public List<Long> joinAll(List<Member> members) {
+        members.forEach(memberRepository::save);
+        flushOrThrowDuplicated();
+        members.forEach(m -> memberNameFilter.add(m.getName()));
+        return members.stream()
+            .map(Member::getId)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 커밋 시점까지 미루지 않고 여기서 insert/update -> unique 제약 위반을 DuplicatedMemberException(IllegalStateException)으로 바꾼다.
      */
-    private void validateDuplicatedMember(Member member) {
-        List<Member> findMembers = memberRepository.findByName(member.getName());
-        // EXCEPTION
-        if (!findMembers.isEmpty()) {
-            throw new IllegalStateException("이미 존재하는 회원입니다.");
+    private void flushOrThrowDuplicated() {
+        try {
+            memberRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicatedName(e)) {
+                throw new DuplicatedMemberException("이미 존재하는 회원입니다.", e);
+            }
+            throw e;
         }
     }
 
+    private boolean isDuplicatedName(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+            && violation.getConstraintName() != null
+            && violation.getConstraintName().toLowerCase().contains(Member.NAME_UNIQUE_INDEX);
+    }
+
+    /**
+     * 회원명 사용 여부 -> 없는 이름은 대부분 DB 조회 없이 판단한다. (MemberNameFilter)
+     */
+    @Transactional(readOnly = true)
+    public boolean existsByName(String name) {
+        return memberNameFilter.exists(name);
+    }
+
     // 회원 전체 조회
     @Transactional(readOnly = true) // 조회에서는 읽기 전용 트랜잭션(성능 향상), 자세한건 공부해야 한다.
     public List<Member> findMembers() {
         return memberRepository.findAll();
     }
 
+    /**
+     * 회원 목록 페이지 (회원 id 순)
+     * limit + 1개를 조회해서 다음 페이지가 있는지 판단한다. -> 마지막 페이지면 nextCursor = null
+     *
+     * @param cursor null 이면 첫 페이지
+     * @param withTotal 전체 회원 수 추정치 포함 여부 (정확한 count(*)는 하지 않는다)
+     */
+    @Transactional(readOnly = true)
+    public MemberPage findMemberPage(Long cursor, int limit, boolean withTotal) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<MemberQueryDto> members = memberRepository.findAllDto(cursor, size + 1);
+
+        boolean hasNext = members.size() > size;
+        if (hasNext) {
+            members = members.subList(0, size);
+        }
+        Long nextCursor = hasNext ? members.get(members.size() - 1).getMemberId() : null;
+        Long totalEstimate = withTotal ? memberRepository.estimateCount() : null;
+        return new MemberPage(members, nextCursor, totalEstimate);
+    }
+
     // 단건 조회
     @Transactional(readOnly = true)
     public Member findOne(Long id) {
         return memberRepository.findOne(id);
     }
 
-    public void update(Long id, String name) {
+    /**
+     * 회원명 변경 -> 변경된 상태를 같은 트랜잭션에서 DTO로 돌려준다. (커밋 후 다시 조회하지 않는다)
+     */
+    public MemberQueryDto update(Long id, String name) {
         Member member = memberRepository.findOne(id);
+        if (member == null) {
+            throw new MemberNotFoundException("존재하지 않는 회원입니다. memberId=" + id);
+        }
         member.setName(name);
+        flushOrThrowDuplicated();
+        memberNameFilter.add(name);
+        return toDto(member);
+    }
+
+    /**
+     * 일괄 수정 -> 트랜잭션 하나
+     * 회원은 IN 쿼리 한 번으로 조회하고 update는 flush 할 때 JDBC batch(hibernate.jdbc.batch_size)로 모아서 보낸다.
+     * 없는 회원이 있거나 이름이 하나라도 중복이면 전체 롤백
+     */
+    public List<MemberQueryDto> updateAll(List<MemberUpdate> updates) {
+        List<Long> ids = updates.stream()
+            .map(MemberUpdate::getMemberId)
+            .distinct()
+            .collect(Collectors.toList());
+        Map<Long, Member> members = memberRepository.findByIds(ids).stream()
+            .collect(Collectors.toMap(Member::getId, Function.identity()));
+
+        List<Member> updated = new ArrayList<>(updates.size());
+        for (MemberUpdate update : updates) {
+            Member member = members.get(update.getMemberId());
+            if (member == null) {
+                throw new MemberNotFoundException("존재하지 않는 회원입니다. memberId=" + update.getMemberId());
+            }
+            if (update.getName() != null) {
+                member.setName(update.getName());
+            }
+            if (update.getAddress() != null) {
+                member.setAddress(merge(member.getAddress(), update.getAddress()));
+            }
+            updated.add(member);
+        }
+        flushOrThrowDuplicated();
+        updates.stream()
+            .filter(u -> u.getName() != null)
+            .forEach(u -> memberNameFilter.add(u.getName()));
+        return updated.stream()
+            .map(MemberService::toDto)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 보낸 값(null 이 아닌 값)만 바꾸고 나머지는 기존 주소를 유지한다. (city 만 보내면 street, zipcode 는 그대로)
+     */
+    private static Address merge(Address current, Address patch) {
+        if (current == null) {
+            return patch;
+        }
+        return new Address(
+            patch.getCity() != null ? patch.getCity() : current.getCity(),
+            patch.getStreet() != null ? patch.getStreet() : current.getStreet(),
+            patch.getZipcode() != null ? patch.getZipcode() : current.getZipcode());
+    }
+
+    private static MemberQueryDto toDto(Member member) {
+        return new MemberQueryDto(member.getId(), member.getName(), member.getAddress());
     }
 }
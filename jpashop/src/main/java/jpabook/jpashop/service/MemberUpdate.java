@@ -0,0 +1,17 @@
+package jpabook.jpashop.service;
+
+import jpabook.jpashop.domain.Address;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 일괄 수정에서 회원 한 명 -> null 인 값은 바꾸지 않는다. (주소도 city, street, zipcode 각각)
+ */
+@Getter
+@AllArgsConstructor
+public class MemberUpdate {
+
+    private Long memberId;
+    private String name;
+    private Address address;
+}
@@ -0,0 +1,24 @@
+package jpabook.jpashop.service;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 일괄 주문에서 주문 한 건 (회원 한 명, 주문 상품 여러 개)
+ */
+@Getter
+@AllArgsConstructor
+public class OrderCommand {
+
+    private Long memberId;
+    private List<OrderLine> orderLines;
+
+    @Getter
+    @AllArgsConstructor
+    public static class OrderLine {
+
+        private Long itemId;
+        private int count;
+    }
+}
@@ -0,0 +1,48 @@
+package jpabook.jpashop.service;
+
+import java.util.List;
+import java.util.function.Function;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.repository.OrderCursor;
+import jpabook.jpashop.repository.OrderQueryDto;
+import jpabook.jpashop.repository.OrderQueryRepository;
+import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.OrderSimpleQueryDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 주문 목록 API 조회 (읽기 전용 트랜잭션)
+ *
+ * 컨트롤러에서 조회, 지연 로딩을 하면(OSIV) 트랜잭션 밖이라 readOnly 가 아니다. -> replica 로 가지 않는다.
+ * 엔티티 -> DTO 변환(지연 로딩 포함)까지 이 트랜잭션 안에서 끝낸다. (mapper)
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class OrderQueryService {
+
+    private final OrderRepository orderRepository;
+    private final OrderQueryRepository orderQueryRepository;
+
+    public <T> List<T> findOrders(int offset, int limit, Function<Order, T> mapper) {
+        return orderRepository.findAllWithMemberDeliveryReadOnly(offset, limit).stream()
+            .map(mapper)
+            .toList();
+    }
+
+    public <T> List<T> findOrders(OrderCursor cursor, int limit, Function<Order, T> mapper) {
+        return orderRepository.findAllWithMemberDeliveryReadOnly(cursor, limit).stream()
+            .map(mapper)
+            .toList();
+    }
+
+    public List<OrderQueryDto> findOrderQueryDtos(int offset, int limit) {
+        return orderQueryRepository.findAllByDto(offset, limit);
+    }
+
+    public List<OrderSimpleQueryDto> findOrderSimpleQueryDtos() {
+        return orderRepository.findOrderDtos();
+    }
+}
@@ -1,16 +1,33 @@
 package jpabook.jpashop.service;
 
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingInt;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import jpabook.jpashop.domain.Delivery;
 import jpabook.jpashop.domain.Member;
 import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderItem;
 import jpabook.jpashop.domain.OrderSearch;
 import jpabook.jpashop.domain.item.Item;
+import jpabook.jpashop.exception.ItemNotFoundException;
+import jpabook.jpashop.exception.MemberNotFoundException;
+import jpabook.jpashop.exception.NoEnoughStockException;
 import jpabook.jpashop.repository.ItemRepository;
 import jpabook.jpashop.repository.MemberRepository;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.repository.OrderSearchRepository;
+import jpabook.jpashop.service.OrderCommand.OrderLine;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,8 +37,15 @@ import org.springframework.transaction.annotation.Transactional;
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderSearchRepository orderSearchRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final StockReservation stockReservation;
+
+    @Value("${jpashop.stock.mode:ATOMIC}")
+    private StockMode stockMode;
+    @Value("${jpashop.stock.optimistic.max-attempts:3}")
+    private int optimisticMaxAttempts;
 
     /**
      * 주문
@@ -30,13 +54,21 @@ public class OrderService {
     public Long order(Long memberId, Long itemId, int count) {
         // 엔티티 조회 -> 트랜잭션 안에서 불러왔으니 영속성 컨텍스트 관리 대상이 된다.
         Member member = memberRepository.findOne(memberId);
-        Item item = itemRepository.findOne(itemId);
+        if (member == null) {
+            throw new MemberNotFoundException("존재하지 않는 회원입니다. memberId=" + memberId);
+        }
         // 배송정보 생성
         Delivery delivery = new Delivery();
         delivery.setAddress(member.getAddress());
 
+        // 재고 차감 -> ENTITY 외에는 재고를 먼저 차감하고 상품을 조회한다. (조회한 item 엔티티는 변경하지 않는다)
+        if (stockMode != StockMode.ENTITY) {
+            removeStock(itemId, count);
+        }
+        Item item = itemRepository.findOne(itemId);
+
         // 주문 상품 생성
-        OrderItem orderItem = OrderItem.createOrderItem(item, item.getPrice(), count);
+        OrderItem orderItem = createOrderItem(item, count);
 
         // 주문 생성
         Order order = Order.createOrder(member, delivery, orderItem);
@@ -46,17 +78,149 @@ public class OrderService {
         return order.getId();
     }
 
+    /**
+     * 일괄 주문 -> 트랜잭션 하나로 여러 주문을 처리한다.
+     *
+     * 1. 재고는 상품별 수량을 합쳐서 상품당 한 번만 차감 (item id 순서로 -> 동시에 일괄 주문이 들어와도 row 락 순서가 같다)
+     * 2. 회원, 상품은 IN 쿼리로 한 번에 조회
+     * 3. 주문/주문상품/배송은 persist만 해두고 커밋 시점에 insert를 모아서 보낸다. (hibernate.jdbc.batch_size, order_inserts)
+     *    id는 시퀀스를 allocationSize(50) 만큼 미리 받아 메모리에서 할당한다. (pooled optimizer)
+     */
+    @Transactional
+    public List<Long> orders(List<OrderCommand> commands) {
+        if (commands.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> itemCounts = commands.stream()
+            .flatMap(command -> command.getOrderLines().stream())
+            .collect(groupingBy(OrderLine::getItemId, TreeMap::new, summingInt(OrderLine::getCount)));
+        if (stockMode != StockMode.ENTITY) {
+            itemCounts.forEach(this::removeStock);
+        }
+
+        List<Long> memberIds = commands.stream()
+            .map(OrderCommand::getMemberId)
+            .distinct()
+            .toList();
+        Map<Long, Member> members = memberRepository.findByIds(memberIds).stream()
+            .collect(toMap(Member::getId, identity()));
+        Map<Long, Item> items = itemRepository.findByIds(new ArrayList<>(itemCounts.keySet())).stream()
+            .collect(toMap(Item::getId, identity()));
+
+        List<Long> orderIds = new ArrayList<>();
+        for (OrderCommand command : commands) {
+            Member member = members.get(command.getMemberId());
+            if (member == null) {
+                throw new MemberNotFoundException("존재하지 않는 회원입니다. memberId=" + command.getMemberId());
+            }
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+
+            OrderItem[] orderItems = command.getOrderLines().stream()
+                .map(line -> createOrderItem(items.get(line.getItemId()), line.getCount()))
+                .toArray(OrderItem[]::new);
+
+            Order order = Order.createOrder(member, delivery, orderItems);
+            orderRepository.save(order);
+            orderIds.add(order.getId());
+        }
+        return orderIds;
+    }
+
+    /**
+     * 주문할 회원, 상품이 있는지만 확인 (비동기 주문 접수) -> IN 쿼리 2번
+     * 방금 가입/등록한 회원, 상품도 찾도록 readOnly 가 아닌 트랜잭션(primary)에서 조회한다.
+     */
+    @Transactional
+    public void checkExists(OrderCommand command) {
+        if (memberRepository.findByIds(List.of(command.getMemberId())).isEmpty()) {
+            throw new MemberNotFoundException("존재하지 않는 회원입니다. memberId=" + command.getMemberId());
+        }
+        List<Long> itemIds = command.getOrderLines().stream()
+            .map(OrderLine::getItemId)
+            .distinct()
+            .toList();
+        Set<Long> found = itemRepository.findByIds(itemIds).stream()
+            .map(Item::getId)
+            .collect(toSet());
+        for (Long itemId : itemIds) {
+            if (!found.contains(itemId)) {
+                throw new ItemNotFoundException("존재하지 않는 상품입니다. itemId=" + itemId);
+            }
+        }
+    }
+
     // 취소
     @Transactional
     public void cancelOrder(Long orderId) {
         Order order = orderRepository.findOne(orderId);
-        order.cancel();
+        if (stockMode == StockMode.ENTITY) {
+            order.cancel();
+            return;
+        }
+        order.changeStatusToCancel();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            restoreStock(orderItem.getItem().getId(), orderItem.getCount());
+        }
     }
 
     // 검색
     public List<Order> findOrders(OrderSearch orderSearch) {
         // 주문 엔티티 조회
-        return orderRepository.findAll(orderSearch);
+        List<Order> orders = orderSearchRepository.searchReadOnly(orderSearch, 1000);
+        // 화면에서 쓰는 주문상품, 상품은 트랜잭션 안에서 초기화 -> 화면(OSIV)에서 지연 로딩하면 readOnly 가 아니라서 replica 로 가지 않는다.
+        orders.forEach(o -> o.getOrderItems().forEach(oi -> oi.getItem().getName()));
+        return orders;
+    }
+
+    // 전체 주문 순회 (export) -> 결과를 List로 모으지 않는다. 영속성 컨텍스트 없이 StatelessSession으로 읽는다.
+    public void forEachOrder(int chunkSize, Consumer<Order> action) {
+        orderRepository.scanWithMemberDelivery(chunkSize, action);
+    }
+
+    // 재고는 이미 차감된 상태 (ENTITY 모드 제외)
+    private OrderItem createOrderItem(Item item, int count) {
+        if (item == null) {
+            throw new ItemNotFoundException("존재하지 않는 상품입니다.");
+        }
+        if (stockMode == StockMode.ENTITY) {
+            return OrderItem.createOrderItem(item, item.getPrice(), count);
+        }
+        return OrderItem.createReservedOrderItem(item, item.getPrice(), count);
+    }
+
+    // ENTITY 모드는 Item.removeStock()으로 차감한다.
+    private void removeStock(Long itemId, int count) {
+        switch (stockMode) {
+            case RESERVATION -> stockReservation.reserve(itemId, count);
+            case ATOMIC -> {
+                if (!itemRepository.decreaseStock(itemId, count)) {
+                    throw stockFailure(itemId);
+                }
+            }
+            case OPTIMISTIC -> {
+                if (!itemRepository.decreaseStockOptimistic(itemId, count, optimisticMaxAttempts)) {
+                    throw new NoEnoughStockException("need more stock");
+                }
+            }
+        }
+    }
+
+    // 조건부 UPDATE 0 row -> 상품이 없는 경우와 재고가 부족한 경우를 구분한다. (실패했을 때만 조회)
+    private RuntimeException stockFailure(Long itemId) {
+        if (itemRepository.findStockQuantity(itemId) == null) {
+            return new ItemNotFoundException("존재하지 않는 상품입니다. itemId=" + itemId);
+        }
+        return new NoEnoughStockException("need more stock");
+    }
+
+    // 재고 복구는 늘리기만 하므로 OPTIMISTIC 도 조건 없는 UPDATE 로 충분하다.
+    private void restoreStock(Long itemId, int count) {
+        if (stockMode == StockMode.RESERVATION) {
+            stockReservation.release(itemId, count);
+            return;
+        }
+        itemRepository.increaseStock(itemId, count);
     }
 
 }
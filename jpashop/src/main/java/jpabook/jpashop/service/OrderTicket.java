@@ -0,0 +1,31 @@
+package jpabook.jpashop.service;
+
+import java.util.UUID;
+import lombok.Getter;
+
+/**
+ * 비동기 주문 접수증 -> 클라이언트는 id로 처리 결과를 조회한다.
+ * 워커 스레드가 상태를 바꾸고 요청 스레드가 읽는다. (volatile)
+ */
+@Getter
+public class OrderTicket {
+
+    public enum Status {
+        PENDING, COMPLETED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private volatile Status status = Status.PENDING;
+    private volatile Long orderId;
+    private volatile String message; // 실패 사유
+
+    void complete(Long orderId) {
+        this.orderId = orderId;
+        this.status = Status.COMPLETED;
+    }
+
+    void fail(String message) {
+        this.message = message;
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,133 @@
+package jpabook.jpashop.service;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.sales.SalesDimension;
+import jpabook.jpashop.domain.sales.SalesRollup;
+import jpabook.jpashop.repository.DailySalesQueryDto;
+import jpabook.jpashop.repository.SalesDeltaQueryDto;
+import jpabook.jpashop.repository.SalesRankingQueryDto;
+import jpabook.jpashop.repository.SalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 매출 집계 (증분 갱신)
+ *
+ * 주기적으로 아직 반영되지 않은 주문은 더하고, 반영된 뒤 취소된 주문은 뺀다.
+ * -> 전체 주문을 다시 읽지 않는다. 리포트는 집계 테이블만 조회한다.
+ *
+ * 반영 여부는 주문마다 남긴다(Order.rolledUpStatus). -> id, 주문 시간 기준 워터마크는 쓰지 않는다.
+ * id는 커밋 순서가 아니다(시퀀스 블록, 일괄 주문, 비동기 워커) -> 늦게 커밋된 주문은 다음 주기에 반영된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SalesRollupService {
+
+    private static final int CHUNK_SIZE = 1000; // 한 번에 집계할 주문 수 (in 절 크기)
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 잠금 row는 스케줄러가 돌기 전에 만들어 둔다. -> refresh()는 잠금만 잡는다.
+     * 다른 서버가 먼저 만들었으면 무시
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> salesRollupRepository.saveLockIfAbsent());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("sales rollup lock already exists");
+        }
+    }
+
+    /**
+     * 커밋된 주문, 취소까지 반영
+     */
+    @Scheduled(fixedDelayString = "${jpashop.report.refresh-interval:60000}")
+    @Transactional
+    public void refresh() {
+        salesRollupRepository.findLockForUpdate();
+        int orders = rollup(null, OrderStatus.ORDER, 1); // 새 주문
+        int cancels = rollup(OrderStatus.ORDER, OrderStatus.CANCEL, -1); // 반영된 뒤 취소된 주문
+        rollup(null, OrderStatus.CANCEL, 0); // 반영 전에 취소된 주문 -> 더하지도 빼지도 않는다.
+        log.debug("sales rollup refreshed. orders={}, cancels={}", orders, cancels);
+    }
+
+    /**
+     * rolledUpStatus 로 반영된 주문 중 현재 status 인 주문을 sign 만큼 반영하고, status 를 반영했다고 남긴다.
+     */
+    private int rollup(OrderStatus rolledUpStatus, OrderStatus status, int sign) {
+        int count = 0;
+        List<Long> orderIds;
+        do {
+            orderIds = salesRollupRepository.findOrderIdsToRollup(rolledUpStatus, status, CHUNK_SIZE);
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            if (sign != 0) {
+                for (SalesDimension dimension : SalesDimension.values()) {
+                    apply(dimension, salesRollupRepository.aggregateOrders(dimension, orderIds), sign);
+                }
+            }
+            salesRollupRepository.markRolledUp(orderIds, status);
+            count += orderIds.size();
+        } while (orderIds.size() == CHUNK_SIZE);
+        return count;
+    }
+
+    private void apply(SalesDimension dimension, List<SalesDeltaQueryDto> deltas, int sign) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // 해당 일자의 집계 row를 한 번에 조회 -> 없으면 새로 만든다.
+        Set<LocalDate> salesDates = deltas.stream()
+            .map(SalesDeltaQueryDto::getSalesDate)
+            .collect(Collectors.toSet());
+        Map<String, SalesRollup> rollups = new HashMap<>();
+        for (SalesRollup rollup : salesRollupRepository.findAll(dimension, salesDates)) {
+            rollups.put(key(rollup.getSalesDate(), rollup.getTargetId()), rollup);
+        }
+
+        for (SalesDeltaQueryDto delta : deltas) {
+            SalesRollup rollup = rollups.computeIfAbsent(key(delta.getSalesDate(), delta.getTargetId()), k -> {
+                SalesRollup created = SalesRollup.createSalesRollup(dimension, delta.getSalesDate(), delta.getTargetId());
+                salesRollupRepository.save(created);
+                return created;
+            });
+            rollup.add(sign * delta.getOrderCount(), sign * delta.getQuantity(), sign * delta.getRevenue());
+        }
+    }
+
+    private static String key(LocalDate salesDate, Long targetId) {
+        return salesDate + ":" + targetId;
+    }
+
+    // == 리포트 == //
+
+    public List<DailySalesQueryDto> findDailySales(LocalDate from, LocalDate to) {
+        return salesRollupRepository.findDailySales(from, to);
+    }
+
+    public List<SalesRankingQueryDto> findItemRanking(LocalDate from, LocalDate to, int limit) {
+        return salesRollupRepository.findItemRanking(from, to, limit);
+    }
+
+    public List<SalesRankingQueryDto> findMemberRanking(LocalDate from, LocalDate to, int limit) {
+        return salesRollupRepository.findMemberRanking(from, to, limit);
+    }
+}
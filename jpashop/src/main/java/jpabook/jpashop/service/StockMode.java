@@ -0,0 +1,11 @@
+package jpabook.jpashop.service;
+
+/**
+ * 주문 시 재고 차감 방식 (jpashop.stock.mode)
+ */
+public enum StockMode {
+    ATOMIC, // 조건부 UPDATE 한 번 (기본값)
+    OPTIMISTIC, // @Version 비교 UPDATE + 재시도
+    ENTITY, // Item.removeStock() + 변경 감지
+    RESERVATION // StockReservation 메모리 예약 + 주기적 DB 반영
+}
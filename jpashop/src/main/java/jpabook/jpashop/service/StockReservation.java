@@ -0,0 +1,164 @@
+package jpabook.jpashop.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import jpabook.jpashop.exception.NoEnoughStockException;
+import jpabook.jpashop.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 메모리 재고 예약
+ *
+ * 상품(item id) 마다 슬롯을 하나씩 두고 CAS(compareAndSet)로 재고를 차감한다. -> 락 없이 동시 주문 처리
+ * 같은 상품에 주문이 몰려도 DB row 락을 잡지 않는다.
+ * 차감량은 슬롯에 모아뒀다가 주기적으로 상품 당 update 한 번으로 DB에 반영한다.
+ *
+ * 주의
+ * -> 슬롯이 없으면(서버 시작 직후) DB 재고로 초기화한다.
+ * -> DB 반영 전까지 item 테이블의 재고는 실제보다 많게 보인다.
+ * -> 서버 한 대 기준이다. 여러 대로 띄우면 서버마다 따로 재고를 차감한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockReservation {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+
+    /**
+     * 재고 예약(차감)
+     * 트랜잭션 안에서 호출되면 롤백 시 예약을 되돌린다.
+     */
+    public void reserve(Long itemId, int count) {
+        Slot slot = slot(itemId);
+        int current;
+        do {
+            current = slot.available.get();
+            if (current < count) {
+                throw new NoEnoughStockException("need more stock");
+            }
+        } while (!slot.available.compareAndSet(current, current - count));
+        slot.pending.addAndGet(count);
+
+        afterCompletion(false, () -> slot.restore(count));
+    }
+
+    /**
+     * 예약 취소(재고 복구)
+     * 트랜잭션 안에서 호출되면 커밋된 후에 복구한다.
+     */
+    public void release(Long itemId, int count) {
+        afterCompletion(true, () -> slot(itemId).restore(count));
+    }
+
+    /**
+     * 슬롯 제거 -> 다음 예약 때 DB 재고로 다시 초기화
+     * 관리자가 재고를 직접 수정한 경우 DB 값이 기준이므로 반영하지 않은 차감량도 버린다.
+     */
+    public void evict(Long itemId) {
+        afterCompletion(true, () -> slots.remove(itemId));
+    }
+
+    /**
+     * 모아둔 차감량을 DB에 반영한다.
+     * 실패하면 차감량을 되돌려 놓고 다음 주기에 다시 시도한다.
+     */
+    @Scheduled(fixedDelayString = "${jpashop.stock.reservation.flush-interval:1000}")
+    public void flush() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        slots.forEach((itemId, slot) -> {
+            int delta = slot.pending.getAndSet(0);
+            if (delta != 0) {
+                deltas.put(itemId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                deltas.forEach((itemId, delta) -> itemRepository.addStockQuantity(itemId, -delta)));
+        } catch (RuntimeException e) {
+            log.warn("stock flush failed. items={}", deltas.keySet(), e);
+            deltas.forEach((itemId, delta) -> {
+                Slot slot = slots.get(itemId);
+                if (slot != null) {
+                    slot.pending.addAndGet(delta);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * computeIfAbsent(itemId, this::load) 를 쓰지 않는다.
+     * -> DB 조회가 ConcurrentHashMap 내부 락(synchronized) 안에서 실행되어 가상 스레드가 캐리어 스레드에 고정(pinning)된다.
+     * 동시에 처음 조회되면 DB를 두 번 읽을 수 있지만 먼저 들어간 슬롯만 사용한다.
+     */
+    private Slot slot(Long itemId) {
+        Slot slot = slots.get(itemId);
+        if (slot != null) {
+            return slot;
+        }
+        Slot loaded = load(itemId);
+        Slot existing = slots.putIfAbsent(itemId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private Slot load(Long itemId) {
+        Integer stockQuantity = itemRepository.findStockQuantity(itemId);
+        if (stockQuantity == null) {
+            throw new IllegalArgumentException("존재하지 않는 상품입니다. itemId=" + itemId);
+        }
+        return new Slot(stockQuantity);
+    }
+
+    private void afterCompletion(boolean onlyCommitted, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onlyCommitted) {
+                action.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onlyCommitted) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private static class Slot {
+
+        private final AtomicInteger available; // 예약 가능한 재고
+        private final AtomicInteger pending = new AtomicInteger(); // DB에 아직 반영하지 않은 차감량
+
+        Slot(int stockQuantity) {
+            this.available = new AtomicInteger(stockQuantity);
+        }
+
+        void restore(int count) {
+            available.addAndGet(count);
+            pending.addAndGet(-count);
+        }
+    }
+}
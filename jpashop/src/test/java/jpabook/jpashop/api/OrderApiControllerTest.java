@@ -0,0 +1,58 @@
+package jpabook.jpashop.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * 주문 API 오류 응답 (상태 코드)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderApiControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void 잘못된_cursor는_400() throws Exception {
+        mockMvc.perform(get("/api/v3.2/orders").param("cursor", "garbage!"))
+            .andExpect(status().isBadRequest());
+
+        // base64 는 맞지만 내용이 변조된 cursor
+        String tampered = Base64.getUrlEncoder().encodeToString("not-a-cursor".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/v3.2/orders").param("cursor", tampered))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void 일괄_주문에_없는_상품이_있으면_404() throws Exception {
+        mockMvc.perform(post("/api/v1/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch(1, -1L)))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void 일괄_주문은_1000건까지() throws Exception {
+        mockMvc.perform(post("/api/v1/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch(1001, 1L)))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static String batch(int size, Long itemId) {
+        String order = "{\"memberId\":1,\"orderItems\":[{\"itemId\":" + itemId + ",\"count\":1}]}";
+        return "{\"orders\":[" + String.join(",", Collections.nCopies(size, order)) + "]}";
+    }
+}
@@ -0,0 +1,102 @@
+package jpabook.jpashop.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * 로컬 H2 두 개 (primary: 기본 메모리 DB, replica: jdbc:h2:mem:replica)
+ * 어느 쪽으로 갔는지는 DATABASE() (접속한 DB 이름)로 확인한다.
+ */
+@SpringBootTest(properties = {
+    "jpashop.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+    "jpashop.datasource.replica.username=sa",
+    "jpashop.datasource.replica.read-your-writes=false"
+})
+class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void 읽기전용_트랜잭션은_replica() {
+        assertThat(databaseName(true)).isEqualTo("REPLICA");
+    }
+
+    @Test
+    void 쓰기_트랜잭션은_primary() {
+        assertThat(databaseName(false)).isNotEqualTo("REPLICA");
+    }
+
+    @Test
+    void 같은_요청에서_쓰기_후_읽기는_primary() throws SQLException {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary");
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routing-replica");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica,
+            true, Duration.ofMinutes(1));
+
+        try {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            assertThat(databaseName(routing, true)).isEqualTo("ROUTING-REPLICA");
+            databaseName(routing, false);
+            assertThat(databaseName(routing, true)).isEqualTo("ROUTING-PRIMARY");
+
+            // 다음 요청 (같은 스레드) -> 이전 요청의 쓰기와 상관 없이 replica
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            assertThat(databaseName(routing, true)).isEqualTo("ROUTING-REPLICA");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        // 요청 밖(스케줄러, 워커 스레드)의 쓰기는 남기지 않는다.
+        databaseName(routing, false);
+        assertThat(databaseName(routing, true)).isEqualTo("ROUTING-REPLICA");
+    }
+
+    @Test
+    void replica_연결실패시_primary() throws SQLException {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:fallback-primary");
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/~/nowhere");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica,
+            false, Duration.ofMinutes(1));
+
+        assertThat(databaseName(routing, true)).isEqualTo("FALLBACK-PRIMARY");
+    }
+
+    private String databaseName(boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> (String) em.createNativeQuery("select database()").getSingleResult());
+    }
+
+    private String databaseName(DataSource dataSource, boolean readOnly) throws SQLException {
+        TransactionTemplate tx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> {
+            try (Connection con = dataSource.getConnection();
+                Statement statement = con.createStatement();
+                ResultSet rs = statement.executeQuery("select database()")) {
+                rs.next();
+                return rs.getString(1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
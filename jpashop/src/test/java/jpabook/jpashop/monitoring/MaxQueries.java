@@ -0,0 +1,19 @@
+package jpabook.jpashop.monitoring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * 테스트 메서드 본문에서 실행되는 SQL 수 상한
+ * 준비 데이터는 @BeforeEach 에서 만들고 flush 해두면 세지 않는다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryCountExtension.class)
+public @interface MaxQueries {
+
+    long value();
+}
@@ -0,0 +1,35 @@
+package jpabook.jpashop.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * @MaxQueries 검증 -> @BeforeEach 이후 테스트 메서드 본문만 센다.
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        queryCounter(context).start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCounter queryCounter = queryCounter(context);
+        long count = queryCounter.count();
+        queryCounter.clear();
+
+        long max = context.getRequiredTestMethod().getAnnotation(MaxQueries.class).value();
+        assertThat(count)
+            .as("SQL 실행 횟수 (N+1 확인)")
+            .isLessThanOrEqualTo(max);
+    }
+
+    private QueryCounter queryCounter(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(QueryCounter.class);
+    }
+}
@@ -0,0 +1,75 @@
+package jpabook.jpashop.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 샘플링 로거 -> 스프링 없이 logback ListAppender 로 남은 로그를 센다.
+ */
+class SampledLoggerTest {
+
+    Logger logger = (Logger) LoggerFactory.getLogger(SampledLoggerTest.class);
+    ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(Level.DEBUG);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+        SampledLogger.configure(Map.of());
+    }
+
+    @Test
+    void 가장_길게_일치하는_로거_이름의_비율() {
+        SampledLogger.configure(Map.of("jpabook.jpashop", 0.5, "jpabook.jpashop.monitoring", 0.1, "jpabook.jpa", 0.0));
+
+        assertThat(SampledLogger.getLogger(SampledLoggerTest.class).getRate()).isEqualTo(0.1);
+        assertThat(SampledLogger.getLogger(String.class).getRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    void 비율만큼_남기고_키값을_붙인다() {
+        SampledLogger.configure(Map.of("jpabook.jpashop.monitoring", 0.1));
+        SampledLogger sampled = SampledLogger.getLogger(SampledLoggerTest.class);
+
+        for (int i = 0; i < 10_000; i++) {
+            sampled.atDebug().addKeyValue("i", i).log("sampled");
+        }
+
+        assertThat(appender.list.size()).isBetween(800, 1200);
+        assertThat(appender.list.get(0).getKeyValuePairs())
+            .extracting(pair -> pair.key)
+            .containsExactly("sampleRate", "i");
+    }
+
+    @Test
+    void 남기지_않으면_인자를_계산하지_않는다() {
+        SampledLogger sampled = SampledLogger.getLogger(SampledLoggerTest.class);
+        AtomicInteger evaluated = new AtomicInteger();
+
+        SampledLogger.configure(Map.of("jpabook.jpashop.monitoring", 0.0));
+        sampled.atDebug().addKeyValue("value", () -> evaluated.incrementAndGet()).log("dropped");
+        SampledLogger.configure(Map.of());
+        logger.setLevel(Level.INFO);
+        sampled.atDebug().addKeyValue("value", () -> evaluated.incrementAndGet()).log("disabled");
+
+        assertThat(evaluated).hasValue(0);
+        assertThat(appender.list).isEmpty();
+    }
+}
@@ -0,0 +1,125 @@
+package jpabook.jpashop.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.service.ItemService;
+import jpabook.jpashop.service.MemberService;
+import jpabook.jpashop.service.OrderService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 상품 2차 캐시 -> 주문(재고 차감)이 섞여도 주문한 상품만 캐시에서 빠진다.
+ * 주문이 커밋되어야 하므로 테스트 트랜잭션(롤백)을 쓰지 않는다.
+ * 테스트 application.yml 에는 2차 캐시, 통계 설정이 없어서 여기서 켠다.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+    "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ItemCacheTest {
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    MemberService memberService;
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    TransactionTemplate tx;
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Test
+    void 주문과_조회가_섞여도_캐시_적중() {
+        Member member = new Member();
+        member.setName("캐시회원-" + UUID.randomUUID());
+        Long memberId = memberService.join(member);
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Book book = new Book();
+            book.setName("캐시책" + i);
+            book.setPrice(1000);
+            book.setStockQuantity(100);
+            itemService.saveItem(book);
+            itemIds.add(book.getId());
+        }
+        readAll(itemIds); // 캐시 채우기
+
+        CacheRegionStatistics region = emf.unwrap(SessionFactory.class).getStatistics()
+            .getDomainDataRegionStatistics("item");
+        long hits = 0;
+        long misses = 0;
+        for (int round = 0; round < 20; round++) {
+            Long orderedId = itemIds.get(round % itemIds.size());
+            orderService.order(memberId, orderedId, 1);
+
+            long hitsBefore = region.getHitCount();
+            long missesBefore = region.getMissCount();
+            List<Integer> stocks = readAll(itemIds);
+            hits += region.getHitCount() - hitsBefore;
+            misses += region.getMissCount() - missesBefore;
+
+            // 캐시에서 읽어도 차감된 재고
+            int expected = 100 - (round / itemIds.size() + 1);
+            assertThat(stocks.get(round % itemIds.size())).isEqualTo(expected);
+        }
+
+        // 주문한 상품 1개만 다시 읽는다. -> 10개 중 9개 적중 (리전 전체가 비워지면 0)
+        assertThat(misses).isEqualTo(20);
+        assertThat((double) hits / (hits + misses)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void OSIV_에서도_주문_트랜잭션이_끝나면_다시_캐시에_넣는다() {
+        Member member = new Member();
+        member.setName("캐시회원-" + UUID.randomUUID());
+        Long memberId = memberService.join(member);
+        Book book = new Book();
+        book.setName("캐시책");
+        book.setPrice(1000);
+        book.setStockQuantity(100);
+        itemService.saveItem(book);
+
+        // OSIV 와 같이 요청 동안 영속성 컨텍스트 하나를 여러 트랜잭션이 같이 쓴다.
+        EntityManager em = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(em));
+        try {
+            orderService.order(memberId, book.getId(), 1);
+            em.clear();
+
+            CacheRegionStatistics region = emf.unwrap(SessionFactory.class).getStatistics()
+                .getDomainDataRegionStatistics("item");
+            long putsBefore = region.getPutCount();
+            readAll(List.of(book.getId()));
+
+            assertThat(region.getPutCount()).isEqualTo(putsBefore + 1);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(emf);
+            em.close();
+        }
+    }
+
+    private List<Integer> readAll(List<Long> itemIds) {
+        return tx.execute(status -> itemIds.stream()
+            .map(id -> itemRepository.findOne(id).getStockQuantity())
+            .toList());
+    }
+}
@@ -0,0 +1,72 @@
+package jpabook.jpashop.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.monitoring.MaxQueries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 주문 조회 쿼리 수 -> 지연 로딩으로 쿼리가 늘어나면(N+1) 실패한다.
+ */
+@SpringBootTest
+@Transactional
+class OrderQueryCountTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    OrderQueryRepository orderQueryRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 10; i++) {
+            Member member = new Member();
+            member.setName("회원" + i);
+            member.setAddress(new Address("서울", "강가", "123-123"));
+            em.persist(member);
+
+            Book book = new Book();
+            book.setName("책" + i);
+            book.setPrice(10000);
+            book.setStockQuantity(100);
+            em.persist(book);
+
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+            em.persist(Order.createOrder(member, delivery, OrderItem.createOrderItem(book, 10000, 1)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @MaxQueries(2)
+    void 주문조회_DTO() {
+        List<OrderQueryDto> orders = orderQueryRepository.findAllByDto(0, 100);
+
+        assertThat(orders).allSatisfy(o -> assertThat(o.getOrderItems()).isNotEmpty());
+    }
+
+    @Test
+    @MaxQueries(1)
+    void 주문조회_fetch_join() {
+        List<Order> orders = orderRepository.findAllWithItem();
+
+        orders.forEach(o -> o.getOrderItems().forEach(oi -> oi.getItem().getName()));
+        assertThat(orders).hasSizeGreaterThanOrEqualTo(10);
+    }
+}
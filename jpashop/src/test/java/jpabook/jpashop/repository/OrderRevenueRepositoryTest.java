@@ -0,0 +1,108 @@
+package jpabook.jpashop.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.monitoring.MaxQueries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class OrderRevenueRepositoryTest {
+
+    // InitDb 주문(오늘)과 겹치지 않는 기간
+    static final LocalDate DAY1 = LocalDate.of(2000, 1, 1);
+    static final LocalDate DAY2 = LocalDate.of(2000, 1, 2);
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderRevenueRepository orderRevenueRepository;
+
+    Member member1;
+    Member member2;
+
+    @BeforeEach
+    void setUp() {
+        member1 = createMember("회원1");
+        member2 = createMember("회원2");
+        createOrder(member1, DAY1, 10000, 2); // 20000
+        createOrder(member1, DAY2, 5000, 1); // 5000
+        createOrder(member2, DAY2, 30000, 1); // 30000
+        createOrder(member2, DAY2, 1000, 1).cancel();
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void 주문금액은_주문상품_합계() {
+        Order order = createOrder(member1, DAY1, 10000, 3);
+        assertThat(order.getTotalPrice()).isEqualTo(30000);
+    }
+
+    @Test
+    @MaxQueries(1)
+    void 상태별_매출() {
+        assertThat(orderRevenueRepository.findRevenueByStatus(DAY1, DAY2))
+            .extracting("status", "orderCount", "revenue")
+            .containsExactly(
+                tuple(OrderStatus.CANCEL, 1L, 1000L),
+                tuple(OrderStatus.ORDER, 3L, 55000L));
+    }
+
+    @Test
+    @MaxQueries(1)
+    void 회원별_매출() {
+        assertThat(orderRevenueRepository.findRevenueByMember(DAY1, DAY2, 10))
+            .extracting("memberId", "orderCount", "revenue")
+            .containsExactly(
+                tuple(member2.getId(), 1L, 30000L),
+                tuple(member1.getId(), 2L, 25000L));
+    }
+
+    @Test
+    @MaxQueries(1)
+    void 일별_매출() {
+        assertThat(orderRevenueRepository.findRevenueByDate(DAY1, DAY2))
+            .extracting("date", "orderCount", "revenue")
+            .containsExactly(
+                tuple(DAY1, 1L, 20000L),
+                tuple(DAY2, 2L, 35000L));
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        return member;
+    }
+
+    private Order createOrder(Member member, LocalDate orderDate, int price, int count) {
+        Book book = new Book();
+        book.setName("책");
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        em.persist(book);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, price, count));
+        order.setOrderDate(orderDate.atTime(12, 0));
+        em.persist(order);
+        return order;
+    }
+}
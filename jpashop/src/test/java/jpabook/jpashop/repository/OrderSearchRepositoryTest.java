@@ -0,0 +1,108 @@
+package jpabook.jpashop.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.List;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.OrderSearch;
+import jpabook.jpashop.domain.OrderStatus;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class OrderSearchRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderSearchRepository orderSearchRepository;
+
+    Order kimOrder;
+    Order kimOldOrder;
+    Order leeOrder;
+
+    @BeforeEach
+    void setUp() {
+        kimOrder = createOrder("김철수", LocalDate.now());
+        kimOldOrder = createOrder("김영희", LocalDate.now().minusDays(10));
+        leeOrder = createOrder("이_순신", LocalDate.now());
+        leeOrder.cancel();
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void 회원명_앞부분일치() {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName("김");
+
+        List<Order> orders = orderSearchRepository.search(orderSearch, 100);
+
+        // 최신 주문부터
+        assertThat(orders).extracting(Order::getId)
+            .containsExactly(kimOrder.getId(), kimOldOrder.getId());
+    }
+
+    @Test
+    void 회원명_중간일치는_찾지않는다() {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName("철수");
+
+        assertThat(orderSearchRepository.search(orderSearch, 100)).isEmpty();
+    }
+
+    @Test
+    void 회원명_와일드카드는_문자그대로() {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName("_");
+        assertThat(orderSearchRepository.search(orderSearch, 100)).isEmpty();
+
+        orderSearch.setMemberName("이_");
+        assertThat(orderSearchRepository.search(orderSearch, 100)).extracting(Order::getId)
+            .containsExactly(leeOrder.getId());
+    }
+
+    @Test
+    void 회원명_상태_기간() {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName("김");
+        orderSearch.setOrderStatus(OrderStatus.ORDER);
+        orderSearch.setOrderDateFrom(LocalDate.now().minusDays(1));
+        orderSearch.setOrderDateTo(LocalDate.now());
+
+        List<Order> orders = orderSearchRepository.search(orderSearch, 100);
+
+        assertThat(orders).extracting(Order::getId).containsExactly(kimOrder.getId());
+    }
+
+    private Order createOrder(String memberName, LocalDate orderDate) {
+        Member member = new Member();
+        member.setName(memberName);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+
+        Book book = new Book();
+        book.setName("책");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        em.persist(book);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, 10000, 1));
+        order.setOrderDate(orderDate.atTime(12, 0));
+        em.persist(order);
+        return order;
+    }
+}
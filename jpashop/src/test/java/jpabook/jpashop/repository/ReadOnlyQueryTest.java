@@ -0,0 +1,107 @@
+package jpabook.jpashop.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 조회 전용 쿼리 -> 쓰기 트랜잭션 안에서 호출해도 변경 감지를 하지 않는다.
+ */
+@SpringBootTest
+@Transactional
+class ReadOnlyQueryTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderRepository orderRepository;
+
+    Long memberId;
+
+    @BeforeEach
+    void setUp() {
+        Member member = new Member();
+        member.setName("읽기전용회원");
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        memberId = member.getId();
+
+        Book book = new Book();
+        book.setName("읽기전용책");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        em.persist(book);
+
+        for (int i = 0; i < 3; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setAddress(member.getAddress());
+            em.persist(Order.createOrder(member, delivery, OrderItem.createOrderItem(book, 10000, 1)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void 읽기전용_조회는_변경감지를_하지_않는다() {
+        List<Order> orders = orderRepository.findAllWithMemberDeliveryReadOnly(0, 100);
+        Session session = em.unwrap(Session.class);
+        assertThat(orders).allSatisfy(o -> {
+            assertThat(session.isReadOnly(o)).isTrue();
+            assertThat(session.isReadOnly(o.getMember())).isTrue(); // fetch join 한 엔티티도 읽기 전용
+        });
+
+        Member member = orders.stream()
+            .map(Order::getMember)
+            .filter(m -> m.getId().equals(memberId))
+            .findFirst()
+            .orElseThrow();
+        member.setName("변경");
+        em.flush();
+        em.clear();
+
+        assertThat(em.find(Member.class, memberId).getName()).isEqualTo("읽기전용회원");
+    }
+
+    @Test
+    void 공용_조회는_변경감지를_한다() {
+        List<Order> orders = orderRepository.findAllWithMemberDelivery(0, 100);
+        Member member = orders.stream()
+            .map(Order::getMember)
+            .filter(m -> m.getId().equals(memberId))
+            .findFirst()
+            .orElseThrow();
+        assertThat(em.unwrap(Session.class).isReadOnly(member)).isFalse();
+
+        // 같은 영속성 컨텍스트에서 다시 조회해서 수정 -> 반영된다.
+        em.find(Member.class, memberId).setName("변경");
+        em.flush();
+        em.clear();
+
+        assertThat(em.find(Member.class, memberId).getName()).isEqualTo("변경");
+    }
+
+    @Test
+    void 스테이트리스_스캔() {
+        List<String> names = new ArrayList<>();
+        orderRepository.scanWithMemberDelivery(2, order -> {
+            assertThat(em.contains(order)).isFalse(); // 영속성 컨텍스트에 올라가지 않는다.
+            names.add(order.getMember().getName());
+        });
+
+        assertThat(names).filteredOn("읽기전용회원"::equals).hasSize(3);
+    }
+}
@@ -0,0 +1,53 @@
+package jpabook.jpashop.seed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * seed 프로파일 -> 기동이 끝나면 BulkDataLoader가 데이터를 넣는다. (InitDb는 실행되지 않는다)
+ */
+@SpringBootTest(properties = {
+    "jpashop.seed.members=30",
+    "jpashop.seed.items=20",
+    "jpashop.seed.orders=250",
+    "jpashop.seed.batch-size=40",
+    "jpashop.seed.parallelism=3"
+})
+@ActiveProfiles("seed")
+@Transactional
+class BulkDataLoaderTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    void 대량_적재() {
+        assertThat(count("select count(m) from Member m")).isEqualTo(30);
+        assertThat(count("select count(i) from Item i")).isEqualTo(20);
+        assertThat(count("select count(o) from Order o")).isEqualTo(250);
+        assertThat(count("select count(d) from Delivery d")).isEqualTo(250);
+        assertThat(count("select count(m) from Member m where m.name = 'userA'")).isZero();
+    }
+
+    @Test
+    void 연관관계와_주문금액() {
+        // 회원, 배송이 모두 연결되어 있다.
+        assertThat(count("select count(o) from Order o join o.member m join o.delivery d")).isEqualTo(250);
+        // 주문마다 주문상품 1 ~ 3개, 주문 금액 = 주문상품 금액 합
+        assertThat(count("select count(o) from Order o"
+            + " where o.totalPrice = (select sum(oi.orderPrice * oi.count) from OrderItem oi where oi.order = o)"
+            + " and (select count(oi) from OrderItem oi where oi.order = o) between 1 and 3")).isEqualTo(250);
+        // 주문 가격 = 상품 가격
+        assertThat(count("select count(oi) from OrderItem oi join oi.item i where oi.orderPrice <> i.price")).isZero();
+    }
+
+    private long count(String jpql) {
+        return em.createQuery(jpql, Long.class).getSingleResult();
+    }
+}
@@ -0,0 +1,124 @@
+package jpabook.jpashop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.ItemNotFoundException;
+import jpabook.jpashop.exception.MemberNotFoundException;
+import jpabook.jpashop.exception.OrderQueueClosedException;
+import jpabook.jpashop.exception.OrderQueueFullException;
+import jpabook.jpashop.service.OrderCommand.OrderLine;
+import jpabook.jpashop.service.OrderTicket.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 워커 스레드가 별도 트랜잭션으로 커밋한다. -> 테스트 트랜잭션(@Transactional) 없이 실행
+ */
+@SpringBootTest
+class AsyncOrderServiceTest {
+
+    @Autowired
+    AsyncOrderService asyncOrderService;
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    MemberService memberService;
+    @Autowired
+    ItemService itemService;
+
+    @Test
+    void 비동기주문() throws Exception {
+        // given
+        Long memberId = createMember();
+        Long itemId = createBook(10);
+
+        // when
+        OrderTicket ok1 = asyncOrderService.submit(command(memberId, itemId, 3));
+        OrderTicket ok2 = asyncOrderService.submit(command(memberId, itemId, 3));
+        OrderTicket tooMany = asyncOrderService.submit(command(memberId, itemId, 100));
+
+        // then
+        awaitDone(ok1, ok2, tooMany);
+        assertThat(ok1.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(ok1.getOrderId()).isNotNull();
+        assertThat(ok2.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(tooMany.getStatus()).isEqualTo(Status.FAILED); // 재고 부족인 주문만 실패
+        assertThat(itemService.findOne(itemId).getStockQuantity()).isEqualTo(4);
+        assertThat(asyncOrderService.findTicket(ok1.getId())).isSameAs(ok1);
+    }
+
+    @Test
+    void 큐가_가득차면_예외() {
+        // 워커를 띄우지 않은 용량 1짜리 큐
+        AsyncOrderService fullQueue = new AsyncOrderService(orderService, new SimpleMeterRegistry(),
+            1, 1, 10, Duration.ofMinutes(1));
+        Long memberId = createMember();
+        Long itemId = createBook(10);
+        fullQueue.submit(command(memberId, itemId, 1));
+
+        assertThatThrownBy(() -> fullQueue.submit(command(memberId, itemId, 1)))
+            .isInstanceOf(OrderQueueFullException.class);
+    }
+
+    @Test
+    void 종료_후_접수하면_예외() throws Exception {
+        AsyncOrderService closed = new AsyncOrderService(orderService, new SimpleMeterRegistry(),
+            10, 1, 10, Duration.ofMinutes(1));
+        closed.start();
+        closed.close();
+
+        assertThatThrownBy(() -> closed.submit(command(createMember(), createBook(10), 1)))
+            .isInstanceOf(OrderQueueClosedException.class);
+    }
+
+    @Test
+    void 없는_회원_상품은_접수하지_않는다() {
+        Long memberId = createMember();
+        Long itemId = createBook(10);
+
+        assertThatThrownBy(() -> asyncOrderService.submit(command(-1L, itemId, 1)))
+            .isInstanceOf(MemberNotFoundException.class);
+        assertThatThrownBy(() -> asyncOrderService.submit(new OrderCommand(memberId,
+            List.of(new OrderLine(itemId, 1), new OrderLine(-1L, 1)))))
+            .isInstanceOf(ItemNotFoundException.class);
+        assertThat(itemService.findOne(itemId).getStockQuantity()).isEqualTo(10);
+    }
+
+    private void awaitDone(OrderTicket... tickets) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        for (OrderTicket ticket : tickets) {
+            while (ticket.getStatus() == Status.PENDING && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private static OrderCommand command(Long memberId, Long itemId, int count) {
+        return new OrderCommand(memberId, List.of(new OrderLine(itemId, count)));
+    }
+
+    private Long createMember() {
+        Member member = new Member();
+        member.setName("비동기회원-" + UUID.randomUUID()); // 커밋된 데이터가 남는다. -> 이름 중복(uk_member_name) 방지
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        return memberService.join(member);
+    }
+
+    private Long createBook(int stockQuantity) {
+        Book book = new Book();
+        book.setName("비동기책-" + UUID.randomUUID());
+        book.setPrice(10000);
+        book.setStockQuantity(stockQuantity);
+        itemService.saveItem(book);
+        return book.getId();
+    }
+}
@@ -0,0 +1,99 @@
+package jpabook.jpashop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.UUID;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.monitoring.MaxQueries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 회원명 Bloom filter
+ * 가입이 커밋된 후에 filter에 들어가므로 테스트 트랜잭션(롤백)을 쓰지 않는다. -> 이름마다 UUID를 붙인다.
+ */
+@SpringBootTest
+class MemberNameFilterTest {
+
+    @Autowired
+    MemberService memberService;
+    @Autowired
+    MemberNameFilter memberNameFilter;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        memberNameFilter.rebuild();
+    }
+
+    @Test
+    void bloom_filter_false_negative_없음_false_positive_비율() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("member" + i)).isTrue();
+            if (filter.mightContain("guest" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 10_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFpp()).isLessThan(0.02);
+    }
+
+    @Test
+    @MaxQueries(0)
+    void 없는_이름은_DB를_조회하지_않는다() {
+        double before = checks("negative");
+
+        assertThat(memberService.existsByName("없는회원-" + UUID.randomUUID())).isFalse();
+
+        assertThat(checks("negative")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void 가입하면_커밋된_후_filter에_추가된다() {
+        String name = "필터회원-" + UUID.randomUUID();
+        Member member = new Member();
+        member.setName(name);
+        memberService.join(member);
+        double before = checks("positive");
+
+        assertThat(memberService.existsByName(name)).isTrue();
+
+        assertThat(checks("positive")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void 재생성하면_기존_회원도_들어간다() {
+        String name = "재생성회원-" + UUID.randomUUID();
+        Member member = new Member();
+        member.setName(name);
+        memberService.join(member);
+
+        memberNameFilter.rebuild();
+
+        assertThat(memberService.existsByName(name)).isTrue();
+    }
+
+    @Test
+    void 이름_없는_회원도_가입과_재생성이_된다() {
+        Member member = new Member();
+        Long id = memberService.join(member);
+
+        memberNameFilter.rebuild();
+
+        assertThat(memberService.findOne(id).getName()).isNull();
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("member.name.filter.checks").tag("result", result).counter().count();
+    }
+}
@@ -1,6 +1,19 @@
 package jpabook.jpashop.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import jpabook.jpashop.domain.Address;
 import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.exception.DuplicatedMemberException;
+import jpabook.jpashop.exception.MemberNotFoundException;
+import jpabook.jpashop.repository.MemberQueryDto;
 import jpabook.jpashop.repository.MemberRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.assertj.core.api.Assertions;
@@ -11,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
@@ -54,4 +68,172 @@ class MemberServiceTest {
         Assertions.assertThatThrownBy(() -> memberService.join(member2))
             .isInstanceOf(IllegalStateException.class);
     }
-}
\ No newline at end of file
+
+    @DisplayName("회원명 변경 중복")
+    @Test
+    void updateDuplicatedTest() {
+        Member member1 = new Member();
+        member1.setName("kim");
+        Member member2 = new Member();
+        member2.setName("lee");
+        memberService.join(member1);
+        Long id = memberService.join(member2);
+
+        Assertions.assertThatThrownBy(() -> memberService.update(id, "kim"))
+            .isInstanceOf(DuplicatedMemberException.class);
+    }
+
+    @DisplayName("일괄 가입")
+    @Test
+    void joinAllTest() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Member member = new Member();
+            member.setName("일괄" + i);
+            members.add(member);
+        }
+
+        List<Long> ids = memberService.joinAll(members);
+
+        Assertions.assertThat(ids).hasSize(10).doesNotContainNull();
+        Assertions.assertThat(memberRepository.findByIds(ids)).hasSize(10);
+    }
+
+    @DisplayName("회원명 변경 -> 변경된 상태를 돌려준다")
+    @Test
+    void updateTest() {
+        Member member = new Member();
+        member.setName("kim");
+        member.setAddress(new Address("서울", "1", "11111"));
+        Long id = memberService.join(member);
+
+        MemberQueryDto updated = memberService.update(id, "lee");
+
+        Assertions.assertThat(updated.getMemberId()).isEqualTo(id);
+        Assertions.assertThat(updated.getName()).isEqualTo("lee");
+        Assertions.assertThat(updated.getAddress().getCity()).isEqualTo("서울");
+    }
+
+    @DisplayName("일괄 수정")
+    @Test
+    void updateAllTest() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Member member = new Member();
+            member.setName("수정" + i);
+            member.setAddress(new Address("서울", String.valueOf(i), "11111"));
+            members.add(member);
+        }
+        List<Long> ids = memberService.joinAll(members);
+
+        List<MemberQueryDto> updated = memberService.updateAll(List.of(
+            new MemberUpdate(ids.get(0), "수정됨", null),
+            new MemberUpdate(ids.get(1), null, new Address("부산", "2", "22222"))));
+
+        Assertions.assertThat(updated).extracting(MemberQueryDto::getName).containsExactly("수정됨", "수정1");
+        Assertions.assertThat(updated.get(0).getAddress().getCity()).isEqualTo("서울");
+        Assertions.assertThat(updated.get(1).getAddress().getCity()).isEqualTo("부산");
+        Assertions.assertThat(memberRepository.findOne(ids.get(2)).getName()).isEqualTo("수정2");
+    }
+
+    @DisplayName("일괄 수정 -> 없는 회원이 있으면 실패")
+    @Test
+    void updateAllNotFoundTest() {
+        Member member = new Member();
+        member.setName("kim");
+        Long id = memberService.join(member);
+
+        Assertions.assertThatThrownBy(() -> memberService.updateAll(List.of(
+                new MemberUpdate(id, "lee", null),
+                new MemberUpdate(-1L, "park", null))))
+            .isInstanceOf(MemberNotFoundException.class);
+    }
+
+    @DisplayName("일괄 수정 -> 주소는 보낸 값만 바꾼다")
+    @Test
+    void updateAllPartialAddressTest() {
+        Member member = new Member();
+        member.setName("주소수정");
+        member.setAddress(new Address("서울", "강가", "11111"));
+        Long id = memberService.join(member);
+
+        List<MemberQueryDto> updated = memberService.updateAll(List.of(
+            new MemberUpdate(id, null, new Address("부산", null, null))));
+
+        Address address = updated.get(0).getAddress();
+        Assertions.assertThat(address.getCity()).isEqualTo("부산");
+        Assertions.assertThat(address.getStreet()).isEqualTo("강가");
+        Assertions.assertThat(address.getZipcode()).isEqualTo("11111");
+    }
+
+    @DisplayName("일괄 가입 요청 안에서 회원명 중복")
+    @Test
+    void joinAllDuplicatedTest() {
+        Member member1 = new Member();
+        member1.setName("일괄");
+        Member member2 = new Member();
+        member2.setName("일괄");
+
+        Assertions.assertThatThrownBy(() -> memberService.joinAll(List.of(member1, member2)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @DisplayName("회원 목록 커서 페이징")
+    @Test
+    void findMemberPageTest() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Member member = new Member();
+            member.setName("페이지" + i);
+            members.add(member);
+        }
+        List<Long> ids = memberService.joinAll(members);
+
+        MemberPage first = memberService.findMemberPage(ids.get(0) - 1, 2, false);
+        MemberPage second = memberService.findMemberPage(first.getNextCursor(), 2, false);
+        MemberPage last = memberService.findMemberPage(second.getNextCursor(), 2, true);
+
+        Assertions.assertThat(first.getMembers()).extracting(MemberQueryDto::getName).containsExactly("페이지0", "페이지1");
+        Assertions.assertThat(second.getMembers()).extracting(MemberQueryDto::getName).containsExactly("페이지2", "페이지3");
+        Assertions.assertThat(last.getMembers()).extracting(MemberQueryDto::getName).containsExactly("페이지4");
+        Assertions.assertThat(last.getNextCursor()).isNull();
+        Assertions.assertThat(first.getTotalEstimate()).isNull();
+        Assertions.assertThat(last.getTotalEstimate()).isPositive();
+    }
+
+    @DisplayName("같은 회원명으로 동시에 가입하면 한 명만 성공")
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 스레드마다 각자 트랜잭션으로 커밋
+    void joinConcurrentlyTest() throws Exception {
+        String name = "동시가입-" + UUID.randomUUID();
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                Member member = new Member();
+                member.setName(name);
+                start.await();
+                return memberService.join(member);
+            }));
+        }
+        start.countDown();
+
+        int joined = 0;
+        int duplicated = 0;
+        for (Future<Long> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                joined++;
+            } catch (ExecutionException e) {
+                Assertions.assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                duplicated++;
+            }
+        }
+        executor.shutdown();
+
+        Assertions.assertThat(joined).isEqualTo(1);
+        Assertions.assertThat(duplicated).isEqualTo(threads - 1);
+    }
+}
@@ -10,8 +10,10 @@ import jpabook.jpashop.domain.Order;
 import jpabook.jpashop.domain.OrderSearch;
 import jpabook.jpashop.domain.OrderStatus;
 import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.ItemNotFoundException;
 import jpabook.jpashop.exception.NoEnoughStockException;
 import jpabook.jpashop.repository.OrderRepository;
+import jpabook.jpashop.service.OrderCommand.OrderLine;
 import lombok.extern.slf4j.Slf4j;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -61,6 +63,17 @@ class OrderServiceTest {
         assertThatThrownBy(() -> orderService.order(member.getId(), book.getId(), orderCount))
             .isInstanceOf(NoEnoughStockException.class);
     }
+
+    @Test
+    void 없는_상품_주문() {
+        Member member = getMember("회원1", "서울", "강가", "123-123");
+
+        // 재고 부족(NoEnoughStockException)이 아니다.
+        assertThatThrownBy(() -> orderService.order(member.getId(), -1L, 1))
+            .isInstanceOf(ItemNotFoundException.class)
+            .hasMessageContaining("존재하지 않는 상품");
+    }
+
     @Test
     public void 상품취소() throws Exception {
         //given
@@ -106,6 +119,42 @@ class OrderServiceTest {
         }
     }
 
+    @Test
+    void 일괄주문() {
+        // given
+        Member member1 = getMember("회원1", "서울", "강가", "123-123");
+        Member member2 = getMember("회원2", "서울", "강가", "123-123");
+        Book book1 = getBook("태백산맥", 10000, 10);
+        Book book2 = getBook("칼의 노래", 20000, 10);
+        List<OrderCommand> commands = List.of(
+            new OrderCommand(member1.getId(), List.of(new OrderLine(book1.getId(), 2), new OrderLine(book2.getId(), 1))),
+            new OrderCommand(member2.getId(), List.of(new OrderLine(book1.getId(), 3))));
+
+        // when
+        List<Long> orderIds = orderService.orders(commands);
+
+        // then
+        assertThat(orderIds).hasSize(2);
+        assertThat(orderRepository.findOne(orderIds.get(0)).getTotalPrice()).isEqualTo(10000 * 2 + 20000);
+        assertThat(orderRepository.findOne(orderIds.get(1)).getMember()).isEqualTo(member2);
+        assertThat(book1.getStockQuantity()).isEqualTo(5);
+        assertThat(book2.getStockQuantity()).isEqualTo(9);
+    }
+
+    @Test
+    void 일괄주문_재고수량초과() {
+        // given
+        Member member = getMember("회원1", "서울", "강가", "123-123");
+        Book book = getBook("태백산맥", 10000, 10);
+        List<OrderCommand> commands = List.of(
+            new OrderCommand(member.getId(), List.of(new OrderLine(book.getId(), 6))),
+            new OrderCommand(member.getId(), List.of(new OrderLine(book.getId(), 6))));
+
+        // expected
+        assertThatThrownBy(() -> orderService.orders(commands))
+            .isInstanceOf(NoEnoughStockException.class);
+    }
+
     private Book getBook(String name, int price, int stockQuantity) {
         Book book = new Book();
         book.setName(name);
@@ -0,0 +1,126 @@
+package jpabook.jpashop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 주문이 id 순서와 다르게 커밋되는 경우 -> 트랜잭션 두 개를 실제로 커밋해야 해서 테스트 트랜잭션(@Transactional) 없이 실행
+ * 커밋한 데이터는 같은 컨텍스트(DB)를 쓰는 다른 테스트에 영향을 주지 않도록 끝나면 지운다.
+ */
+@SpringBootTest
+class SalesRollupCommitOrderTest {
+
+    // 다른 테스트 주문과 겹치지 않는 일자
+    static final LocalDate DAY = LocalDate.of(2001, 1, 1);
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    SalesRollupService salesRollupService;
+
+    // 커밋한 엔티티 -> 만든 순서의 역순으로 지운다. (주문 -> 상품 -> 회원)
+    final List<Object> created = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = created.size() - 1; i >= 0; i--) {
+                Object entity = created.get(i);
+                Object found = em.find(entity.getClass(), em.getEntityManagerFactory().getPersistenceUnitUtil()
+                    .getIdentifier(entity));
+                if (found != null) {
+                    em.remove(found); // 주문 -> 주문상품, 배송도 같이 지운다. (cascade)
+                }
+            }
+            em.createQuery("delete from SalesRollup r where r.salesDate = :day")
+                .setParameter("day", DAY)
+                .executeUpdate();
+        });
+    }
+
+    @Test
+    void id가_작은_주문이_늦게_커밋돼도_집계() {
+        // given
+        Member member = transactionTemplate.execute(status -> createMember("늦은커밋회원"));
+        Book book1 = transactionTemplate.execute(status -> createBook("늦은커밋책1", 10000));
+        Book book2 = transactionTemplate.execute(status -> createBook("늦은커밋책2", 10000)); // 같은 상품이면 재고 row 잠금을 기다린다.
+
+        // when -> 먼저 id를 받은 주문이 커밋되기 전에, 나중 주문이 커밋되고 집계까지 끝난다.
+        Order[] orders = new Order[2];
+        transactionTemplate.executeWithoutResult(status -> {
+            orders[0] = createOrder(member, OrderItem.createOrderItem(em.find(Book.class, book1.getId()), 10000, 1));
+            em.flush();
+            CompletableFuture.runAsync(() -> {
+                orders[1] = transactionTemplate.execute(s ->
+                    createOrder(member, OrderItem.createOrderItem(em.find(Book.class, book2.getId()), 10000, 2)));
+                salesRollupService.refresh();
+            }).join();
+        });
+        assertThat(orders[0].getId()).isLessThan(orders[1].getId());
+        assertThat(salesRollupService.findDailySales(DAY, DAY))
+            .extracting("orderCount", "quantity", "revenue")
+            .containsExactly(tuple(1L, 2L, 20000L)); // 아직 커밋 전인 주문은 빠진다.
+
+        salesRollupService.refresh();
+
+        // then
+        assertThat(salesRollupService.findDailySales(DAY, DAY))
+            .extracting("orderCount", "quantity", "revenue")
+            .containsExactly(tuple(2L, 3L, 30000L));
+
+        // 늦게 커밋된 주문의 취소도 반영
+        transactionTemplate.executeWithoutResult(status -> em.find(Order.class, orders[0].getId()).cancel());
+        salesRollupService.refresh();
+        assertThat(salesRollupService.findDailySales(DAY, DAY))
+            .extracting("orderCount", "quantity", "revenue")
+            .containsExactly(tuple(1L, 2L, 20000L));
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        created.add(member);
+        return member;
+    }
+
+    private Book createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        em.persist(book);
+        created.add(book);
+        return book;
+    }
+
+    private Order createOrder(Member member, OrderItem... orderItems) {
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(em.find(Member.class, member.getId()), delivery, orderItems);
+        order.setOrderDate(DAY.atTime(12, 0));
+        em.persist(order);
+        created.add(order);
+        return order;
+    }
+}
@@ -0,0 +1,123 @@
+package jpabook.jpashop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import jpabook.jpashop.domain.Address;
+import jpabook.jpashop.domain.Delivery;
+import jpabook.jpashop.domain.Member;
+import jpabook.jpashop.domain.Order;
+import jpabook.jpashop.domain.OrderItem;
+import jpabook.jpashop.domain.item.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class SalesRollupServiceTest {
+
+    // InitDb 주문(오늘)과 겹치지 않는 기간
+    static final LocalDate DAY1 = LocalDate.of(2000, 1, 1);
+    static final LocalDate DAY2 = LocalDate.of(2000, 1, 2);
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    SalesRollupService salesRollupService;
+
+    Member member1;
+    Member member2;
+    Book book1;
+    Book book2;
+
+    @BeforeEach
+    void setUp() {
+        member1 = createMember("회원1");
+        member2 = createMember("회원2");
+        book1 = createBook("책1", 10000);
+        book2 = createBook("책2", 20000);
+    }
+
+    @Test
+    void 일별_상품별_회원별_집계() {
+        // given
+        createOrder(member1, DAY1, OrderItem.createOrderItem(book1, 10000, 2), OrderItem.createOrderItem(book2, 20000, 1));
+        createOrder(member2, DAY2, OrderItem.createOrderItem(book1, 10000, 1));
+
+        // when
+        refresh();
+
+        // then
+        assertThat(salesRollupService.findDailySales(DAY1, DAY2))
+            .extracting("date", "orderCount", "quantity", "revenue")
+            .containsExactly(
+                tuple(DAY1, 1L, 3L, 40000L),
+                tuple(DAY2, 1L, 1L, 10000L));
+        assertThat(salesRollupService.findItemRanking(DAY1, DAY2, 10))
+            .extracting("id", "name", "orderCount", "quantity", "revenue")
+            .containsExactly(
+                tuple(book1.getId(), "책1", 2L, 3L, 30000L),
+                tuple(book2.getId(), "책2", 1L, 1L, 20000L));
+        assertThat(salesRollupService.findMemberRanking(DAY1, DAY2, 1))
+            .extracting("id", "name", "revenue")
+            .containsExactly(tuple(member1.getId(), "회원1", 40000L));
+    }
+
+    @Test
+    void 증분_집계_취소분_차감() {
+        // given
+        Order order = createOrder(member1, DAY1, OrderItem.createOrderItem(book1, 10000, 2));
+        refresh();
+
+        // when
+        createOrder(member2, DAY1, OrderItem.createOrderItem(book2, 20000, 1));
+        order.cancel();
+        refresh();
+
+        // then
+        assertThat(salesRollupService.findDailySales(DAY1, DAY1))
+            .extracting("orderCount", "quantity", "revenue")
+            .containsExactly(tuple(1L, 1L, 20000L));
+        assertThat(salesRollupService.findMemberRanking(DAY1, DAY1, 10))
+            .extracting("id", "revenue")
+            .containsExactly(
+                tuple(member2.getId(), 20000L),
+                tuple(member1.getId(), 0L));
+    }
+
+    private void refresh() {
+        em.flush();
+        salesRollupService.refresh();
+    }
+
+    private Member createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        return member;
+    }
+
+    private Book createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        em.persist(book);
+        return book;
+    }
+
+    private Order createOrder(Member member, LocalDate orderDate, OrderItem... orderItems) {
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, orderItems);
+        order.setOrderDate(orderDate.atTime(12, 0));
+        em.persist(order);
+        return order;
+    }
+}
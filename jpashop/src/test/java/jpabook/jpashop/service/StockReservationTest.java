@@ -0,0 +1,74 @@
+package jpabook.jpashop.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import jakarta.persistence.EntityManager;
+import jpabook.jpashop.domain.item.Book;
+import jpabook.jpashop.exception.NoEnoughStockException;
+import jpabook.jpashop.repository.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class StockReservationTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    StockReservation stockReservation;
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Test
+    void 재고예약_DB반영() {
+        // given
+        Book book = getBook("태백산맥", 10000, 10);
+
+        // when
+        stockReservation.reserve(book.getId(), 3);
+        stockReservation.reserve(book.getId(), 4);
+        stockReservation.flush();
+        em.clear();
+
+        // then
+        assertThat(itemRepository.findOne(book.getId()).getStockQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    void 재고예약_재고수량초과() {
+        // given
+        Book book = getBook("태백산맥", 10000, 10);
+        stockReservation.reserve(book.getId(), 8);
+
+        // expected
+        assertThatThrownBy(() -> stockReservation.reserve(book.getId(), 3))
+            .isInstanceOf(NoEnoughStockException.class);
+    }
+
+    @Test
+    void 재고예약_취소() {
+        // given
+        Book book = getBook("태백산맥", 10000, 10);
+        stockReservation.reserve(book.getId(), 10);
+
+        // when
+        stockReservation.release(book.getId(), 10); // 트랜잭션 안 -> 커밋 후에 복구된다.
+
+        // then
+        assertThatThrownBy(() -> stockReservation.reserve(book.getId(), 1))
+            .isInstanceOf(NoEnoughStockException.class);
+    }
+
+    private Book getBook(String name, int price, int stockQuantity) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(stockQuantity);
+        em.persist(book);
+        return book;
+    }
+}